@@ -1,34 +1,105 @@
 package com.example.demo.controller;
 
 import com.example.demo.domain.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @RestController
 @RequestMapping("user")
 public class UserController {
 
+    // 批量获取一次最多的id数
+    private static final int MAX_BATCH_SIZE = 1000;
+    // 流式获取一页最多的用户数
+    private static final int MAX_PAGE_SIZE = 5000;
+    // 模拟的用户总数，id从1开始
+    private static final long TOTAL_USERS = 10000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private Logger log = LoggerFactory.getLogger(this.getClass());
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 带上 If-None-Match 请求头且内容未变化时返回304，不返回响应体
     @GetMapping("/{id:\\d+}")
-    public User get(@PathVariable Long id) {
+    public User get(@PathVariable Long id, WebRequest request) throws JsonProcessingException {
+        User user = new User(id, "mrbird", "123456");
+        if (request.checkNotModified(etag(user))) {
+            return null;
+        }
         log.info("获取用户id为 " + id + "的信息");
-        return new User(id, "mrbird", "123456");
+        return user;
     }
 
     @GetMapping
-    public List<User> get() {
+    public List<User> get(WebRequest request) throws JsonProcessingException {
         List<User> list = new ArrayList<>();
         list.add(new User(1L, "mrbird", "123456"));
         list.add(new User(2L, "scott", "123456"));
+        if (request.checkNotModified(etag(list))) {
+            return null;
+        }
         log.info("获取用户信息 " + list);
         return list;
     }
 
+    // 一次请求获取多个用户，重复的id只返回一次
+    @PostMapping("batch-get")
+    public ResponseEntity<List<User>> batchGet(@RequestBody List<Long> ids) {
+        LinkedHashSet<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("批量获取用户信息,共" + distinctIds.size() + "个");
+        List<User> list = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            list.add(new User(id, "user" + id, "123456"));
+        }
+        return ResponseEntity.ok(list);
+    }
+
+    /**
+     * 以NDJSON（每行一个JSON）分块返回id大于cursor的用户，边生成边写出，不在内存中拼装整个列表。
+     * 还有下一页时通过 X-Next-Cursor 响应头返回下一页的cursor
+     */
+    @GetMapping("stream")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(defaultValue = "0") long cursor,
+                                                        @RequestParam(defaultValue = "1000") int size) {
+        long from = Math.max(cursor, 0) + 1;
+        long to = Math.min(from + Math.min(Math.max(size, 1), MAX_PAGE_SIZE) - 1, TOTAL_USERS);
+        log.info("流式获取用户信息,id " + from + "~" + to);
+        StreamingResponseBody body = outputStream -> {
+            for (long id = from; id <= to; id++) {
+                outputStream.write(objectMapper.writeValueAsBytes(new User(id, "user" + id, "123456")));
+                outputStream.write('\n');
+                if (id % 100 == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(NDJSON);
+        if (to < TOTAL_USERS) {
+            builder.header("X-Next-Cursor", String.valueOf(to));
+        }
+        return builder.body(body);
+    }
+
     @PostMapping
     public void add(@RequestBody User user) {
         log.info("新增用户成功 " + user);
@@ -44,4 +115,8 @@ public class UserController {
         log.info("删除用户成功 " + id);
     }
 
+    // 按序列化后的响应体计算，与实际返回的内容一致
+    private String etag(Object content) throws JsonProcessingException {
+        return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(content)) + "\"";
+    }
 }
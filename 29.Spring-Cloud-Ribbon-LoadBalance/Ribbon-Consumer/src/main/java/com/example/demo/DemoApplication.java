@@ -1,10 +1,13 @@
 package com.example.demo;
 
+import com.example.demo.loadbalancer.InstanceLatencyStats;
+import com.example.demo.loadbalancer.LatencyRecordingRequestFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @EnableDiscoveryClient
@@ -14,7 +17,9 @@ public class DemoApplication {
     @Bean
     @LoadBalanced
     RestTemplate restTemplate() {
-        return new RestTemplate();
+        // 记录每个实例的响应时间，供 PeakEwmaRule 使用
+        return new RestTemplate(new LatencyRecordingRequestFactory(
+                new SimpleClientHttpRequestFactory(), InstanceLatencyStats.getInstance()));
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,71 @@
+package com.example.demo.client;
+
+import com.example.demo.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 基于AsyncRestTemplate的非阻塞用户服务客户端，调用期间不占用servlet线程，
+ * 超过deadline或调用失败时返回默认用户
+ *
+ * @author MrBird
+ */
+@Component
+public class AsyncUserClient implements DisposableBean {
+
+    // 默认用户的id，调用方据此区分降级结果
+    public static final long DEFAULT_USER_ID = -1L;
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private AsyncRestTemplate asyncRestTemplate;
+
+    // 整个调用（包括等待连接）的超时时间
+    @Value("${async-client.deadline:3000}")
+    private long deadline;
+
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public CompletableFuture<User> getUser(Long id) {
+        ListenableFuture<ResponseEntity<User>> response =
+                asyncRestTemplate.getForEntity("http://Server-Provider/user/{id}", User.class, id);
+        CompletableFuture<User> future = new CompletableFuture<>();
+        response.addCallback(entity -> future.complete(entity.getBody()), future::completeExceptionally);
+
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> {
+            if (future.completeExceptionally(new TimeoutException("获取用户" + id + "超时"))) {
+                response.cancel(true);
+            }
+        }, deadline, TimeUnit.MILLISECONDS);
+        future.whenComplete((user, e) -> timeout.cancel(false));
+
+        return future.exceptionally(e -> {
+            log.warn("获取用户信息失败，返回默认用户: {}", e.getMessage());
+            return defaultUser();
+        });
+    }
+
+    private User defaultUser() {
+        return new User(DEFAULT_USER_ID, "defaultUser", "123456");
+    }
+
+    @Override
+    public void destroy() {
+        timeoutScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.client;
+
+import com.example.demo.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对比高扇出场景下阻塞的RestTemplate和非阻塞的AsyncUserClient占用的线程数和吞吐量，
+ * 吞吐量只按成功的调用计算，失败和降级为默认用户的调用单独统计
+ *
+ * @author MrBird
+ */
+@Component
+public class FanOutBenchmark {
+
+    // 阻塞调用最多使用的线程数
+    private static final int MAX_CALLER_THREADS = 1000;
+
+    @Autowired
+    private RestTemplate restTemplate;
+    @Autowired
+    private AsyncUserClient asyncUserClient;
+
+    /**
+     * @param calls 同时发出的调用数
+     * @param async true：AsyncUserClient；false：每个调用占用一个线程阻塞等待RestTemplate返回
+     */
+    public Map<String, Object> run(int calls, boolean async) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threadMXBean.getThreadCount();
+        threadMXBean.resetPeakThreadCount();
+
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        int callerThreads = 0;
+        long begin = System.nanoTime();
+        if (async) {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[calls];
+            for (int i = 0; i < calls; i++) {
+                // AsyncUserClient 失败时返回默认用户，不抛出异常
+                futures[i] = asyncUserClient.getUser((long) i).thenAccept(user -> {
+                    if (user == null || user.getId() == null || user.getId() == AsyncUserClient.DEFAULT_USER_ID) {
+                        failed.increment();
+                    } else {
+                        succeeded.increment();
+                    }
+                });
+            }
+            CompletableFuture.allOf(futures).join();
+        } else {
+            callerThreads = Math.min(calls, MAX_CALLER_THREADS);
+            ExecutorService callers = Executors.newFixedThreadPool(callerThreads);
+            CountDownLatch done = new CountDownLatch(calls);
+            for (int i = 0; i < calls; i++) {
+                long id = i;
+                callers.execute(() -> {
+                    try {
+                        restTemplate.getForObject("http://Server-Provider/user/{id}", User.class, id);
+                        succeeded.increment();
+                    } catch (Exception e) {
+                        failed.increment();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            callers.shutdown();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", calls);
+        result.put("async", async);
+        result.put("succeeded", succeeded.sum());
+        result.put("failedOrFallback", failed.sum());
+        if (!async) {
+            result.put("callerThreads", callerThreads);
+        }
+        result.put("threadsBefore", threadsBefore);
+        result.put("peakThreads", threadMXBean.getPeakThreadCount());
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("callsPerSecond", elapsed == 0 ? 0 : succeeded.sum() * 1_000_000_000L / elapsed);
+        return result;
+    }
+}
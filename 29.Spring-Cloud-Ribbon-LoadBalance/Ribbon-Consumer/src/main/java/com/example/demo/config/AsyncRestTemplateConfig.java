@@ -0,0 +1,67 @@
+package com.example.demo.config;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
+import org.springframework.web.client.AsyncRestTemplate;
+
+/**
+ * 非阻塞的负载均衡客户端，与RestTemplate并存。
+ * 基于NIO的HttpAsyncClient，少量IO线程即可处理大量并发请求，连接池按主机限制并发连接数
+ *
+ * @author MrBird
+ */
+@Configuration
+public class AsyncRestTemplateConfig {
+
+    @Value("${async-client.max-total:200}")
+    private int maxTotal;
+    @Value("${async-client.max-per-host:50}")
+    private int maxPerHost;
+    @Value("${async-client.connect-timeout:1000}")
+    private int connectTimeout;
+    @Value("${async-client.read-timeout:2000}")
+    private int readTimeout;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient httpAsyncClient() throws IOReactorException {
+        IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                .setConnectTimeout(connectTimeout)
+                .setSoTimeout(readTimeout)
+                .setSoKeepAlive(true)
+                .build();
+        PoolingNHttpClientConnectionManager connectionManager =
+                new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig));
+        // 连接池总大小和每个服务实例的最大连接数
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerHost);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .build();
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+        client.start();
+        return client;
+    }
+
+    @Bean
+    @LoadBalanced
+    public AsyncRestTemplate asyncRestTemplate(CloseableHttpAsyncClient httpAsyncClient) {
+        return new AsyncRestTemplate(new HttpComponentsAsyncClientHttpRequestFactory(httpAsyncClient));
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.client.AsyncUserClient;
+import com.example.demo.client.FanOutBenchmark;
 import com.example.demo.domain.User;
+import com.example.demo.loadbalancer.LoadBalancerBenchmark;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -13,12 +17,19 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class TestController {
 
     @Autowired
     private RestTemplate restTemplate;
+    @Autowired
+    private AsyncUserClient asyncUserClient;
+    @Autowired
+    private FanOutBenchmark fanOutBenchmark;
+    @Autowired
+    private LoadBalancerBenchmark loadBalancerBenchmark;
 
     @GetMapping("user/{id:\\d+}")
     public User getUser(@PathVariable Long id) {
@@ -29,6 +40,26 @@ public class TestController {
         return this.restTemplate.getForEntity(uri, User.class).getBody();
     }
 
+    // 返回CompletableFuture，等待服务提供方响应期间释放servlet线程
+    @GetMapping("async/user/{id:\\d+}")
+    public CompletableFuture<User> getUserAsync(@PathVariable Long id) {
+        return asyncUserClient.getUser(id);
+    }
+
+    @GetMapping("testFanOut")
+    public Map<String, Object> testFanOut(@RequestParam(defaultValue = "500") int calls,
+                                          @RequestParam(defaultValue = "true") boolean async) throws InterruptedException {
+        return fanOutBenchmark.run(calls, async);
+    }
+
+    @GetMapping("testLoadBalancer")
+    public Map<String, Object> testLoadBalancer(@RequestParam(defaultValue = "2000") int requests,
+                                                @RequestParam(defaultValue = "20") int concurrency,
+                                                @RequestParam(defaultValue = "3") int instances,
+                                                @RequestParam(defaultValue = "200") long slowMillis) throws InterruptedException {
+        return loadBalancerBenchmark.run(requests, concurrency, instances, slowMillis);
+    }
+
     @GetMapping("user")
     public List<User> getUsers() {
         return this.restTemplate.getForObject("http://Server-Provider/user", List.class);
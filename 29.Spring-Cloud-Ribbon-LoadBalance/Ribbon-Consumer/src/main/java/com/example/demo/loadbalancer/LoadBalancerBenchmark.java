@@ -0,0 +1,120 @@
+package com.example.demo.loadbalancer;
+
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.LoadBalancerBuilder;
+import com.netflix.loadbalancer.RoundRobinRule;
+import com.netflix.loadbalancer.Server;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模拟若干个服务实例，其中一个响应变慢，对比轮询和 PeakEwmaRule 的尾延迟。
+ * 实例的响应用sleep模拟，不需要启动真实的服务提供方
+ *
+ * @author MrBird
+ */
+@Component
+public class LoadBalancerBenchmark {
+
+    // 正常实例的响应时间
+    private static final long NORMAL_MILLIS = 10;
+
+    /**
+     * @param requests    总请求数
+     * @param concurrency 并发的调用方数量
+     * @param instances   实例数，第一个实例为慢实例
+     * @param slowMillis  慢实例的响应时间
+     */
+    public Map<String, Object> run(int requests, int concurrency, int instances, long slowMillis) throws InterruptedException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("concurrency", concurrency);
+        result.put("instances", instances);
+        result.put("slowMillis", slowMillis);
+        result.put("roundRobin", simulate(new RoundRobinRule(), new InstanceLatencyStats(TimeUnit.SECONDS.toNanos(1)),
+                requests, concurrency, instances, slowMillis));
+        InstanceLatencyStats stats = new InstanceLatencyStats(TimeUnit.SECONDS.toNanos(1));
+        result.put("peakEwma", simulate(new PeakEwmaRule(stats), stats, requests, concurrency, instances, slowMillis));
+        return result;
+    }
+
+    private Map<String, Object> simulate(AbstractLoadBalancerRule rule, InstanceLatencyStats stats, int requests,
+                                         int concurrency, int instances, long slowMillis) throws InterruptedException {
+        List<Server> servers = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            servers.add(new Server("simulated-" + i, 8080));
+        }
+        BaseLoadBalancer lb = LoadBalancerBuilder.<Server>newBuilder()
+                .withRule(rule)
+                .buildFixedServerListLoadBalancer(servers);
+        String slowServer = servers.get(0).getHostPort();
+
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger sequence = new AtomicInteger();
+        long[] latencies = new long[requests];
+        Map<String, LongAdder> distribution = new ConcurrentHashMap<>();
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            callers.execute(() -> {
+                int index;
+                while ((index = sequence.getAndIncrement()) < requests) {
+                    long start = System.nanoTime();
+                    String hostPort = lb.chooseServer(null).getHostPort();
+                    distribution.computeIfAbsent(hostPort, key -> new LongAdder()).increment();
+                    stats.start(hostPort);
+                    long rtt = System.nanoTime();
+                    try {
+                        // 模拟±20%的响应时间抖动
+                        long millis = slowServer.equals(hostPort) ? slowMillis : NORMAL_MILLIS;
+                        TimeUnit.MICROSECONDS.sleep(millis * ThreadLocalRandom.current().nextInt(800, 1200));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        stats.finish(hostPort, System.nanoTime() - rtt);
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        callers.shutdown();
+        lb.shutdown();
+
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("p50Ms", percentile(latencies, 0.5));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("maxMs", latencies[latencies.length - 1] / 1_000_000.0);
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        Map<String, Long> perInstance = new LinkedHashMap<>();
+        servers.forEach(server -> {
+            LongAdder count = distribution.get(server.getHostPort());
+            perInstance.put(server.getHostPort(), count == null ? 0 : count.sum());
+        });
+        result.put("requestsPerInstance", perInstance);
+        return result;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+}
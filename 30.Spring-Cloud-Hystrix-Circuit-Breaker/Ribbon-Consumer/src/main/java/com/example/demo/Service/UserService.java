@@ -7,7 +7,6 @@ import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
 import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheKey;
 import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheRemove;
 import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheResult;
-import com.netflix.hystrix.contrib.javanica.command.AsyncResult;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,17 +32,14 @@ public class UserService {
     @Autowired
     private RestTemplate restTemplate;
 
-    @HystrixCollapser(batchMethod = "findUserBatch", collapserProperties = {
-            @HystrixProperty(name = "timerDelayInMilliseconds", value = "100")
+    // GLOBAL范围合并所有请求中的调用，攒够100个或等待10毫秒后（先到者为准）发出批量请求
+    @HystrixCollapser(batchMethod = "findUserBatch", scope = com.netflix.hystrix.HystrixCollapser.Scope.GLOBAL, collapserProperties = {
+            @HystrixProperty(name = "timerDelayInMilliseconds", value = "10"),
+            @HystrixProperty(name = "maxRequestsInBatch", value = "100")
     })
     public Future<User> findUser(Long id) {
+        // 方法体不会被执行，调用会被合并后交给findUserBatch处理
         log.info("获取单个用户信息");
-        // return new AsyncResult<User>() {
-        //     @Override
-        //     public User invoke() {
-        //         return restTemplate.getForObject("http://Server-Provider/user/{id}", User.class, id);
-        //     }
-        // };
         return null;
     }
 
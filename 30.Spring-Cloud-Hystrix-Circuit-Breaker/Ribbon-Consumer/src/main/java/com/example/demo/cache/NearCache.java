@@ -0,0 +1,112 @@
+package com.example.demo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 跨请求的本地缓存，按Hystrix命令分区，每个分区有独立的容量上限（LRU淘汰）和过期时间
+ *
+ * @author MrBird
+ */
+@Component
+public class NearCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<>();
+
+    public NearCache(@Value("${near-cache.ttl:5000}") long ttlMillis,
+                     @Value("${near-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSize = maxSize;
+    }
+
+    public Object get(String commandKey, String cacheKey) {
+        return region(commandKey).get(cacheKey);
+    }
+
+    public void put(String commandKey, String cacheKey, Object value) {
+        region(commandKey).put(cacheKey, value);
+    }
+
+    public void remove(String commandKey, String cacheKey) {
+        region(commandKey).remove(cacheKey);
+    }
+
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        regions.forEach((commandKey, region) -> stats.put(commandKey, region.stats()));
+        return stats;
+    }
+
+    private Region region(String commandKey) {
+        return regions.computeIfAbsent(commandKey, key -> new Region());
+    }
+
+    private class Region {
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        synchronized Object get(String cacheKey) {
+            Entry entry = entries.get(cacheKey);
+            if (entry == null || entry.expireAt - System.nanoTime() < 0) {
+                if (entry != null) {
+                    entries.remove(cacheKey);
+                }
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+
+        synchronized void put(String cacheKey, Object value) {
+            entries.put(cacheKey, new Entry(value, System.nanoTime() + ttlNanos));
+        }
+
+        synchronized void remove(String cacheKey) {
+            if (entries.remove(cacheKey) != null) {
+                invalidations.increment();
+            }
+        }
+
+        synchronized Map<String, Long> stats() {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("size", (long) entries.size());
+            stats.put("hits", hits.sum());
+            stats.put("misses", misses.sum());
+            stats.put("evictions", evictions.sum());
+            stats.put("invalidations", invalidations.sum());
+            return stats;
+        }
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
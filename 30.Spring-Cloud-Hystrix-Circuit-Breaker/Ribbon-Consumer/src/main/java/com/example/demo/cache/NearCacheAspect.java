@@ -0,0 +1,115 @@
+package com.example.demo.cache;
+
+import com.netflix.hystrix.HystrixInvokableInfo;
+import com.netflix.hystrix.HystrixRequestLog;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheKey;
+import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheRemove;
+import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheResult;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 在Hystrix请求缓存之外加一层跨请求的本地缓存，沿用 @CacheResult 和 @CacheRemove 注解：
+ * 命中时直接返回，不再经过Hystrix命令和服务提供方；@CacheRemove 同时让本地缓存失效。
+ * 切面顺序在 HystrixCommandAspect 之前，降级方法返回的结果不缓存
+ *
+ * @author MrBird
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "near-cache.enabled", havingValue = "true")
+public class NearCacheAspect {
+
+    @Autowired
+    private NearCache nearCache;
+
+    @Around("@annotation(cacheResult)")
+    public Object cacheResult(ProceedingJoinPoint joinPoint, CacheResult cacheResult) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String commandKey = commandKey(method);
+        String cacheKey = cacheKey(joinPoint, method, cacheResult.cacheKeyMethod());
+        Object value = nearCache.get(commandKey, cacheKey);
+        if (value != null) {
+            return value;
+        }
+        value = joinPoint.proceed();
+        if (value != null && !fromFallback(commandKey)) {
+            nearCache.put(commandKey, cacheKey, value);
+        }
+        return value;
+    }
+
+    @Around("@annotation(cacheRemove)")
+    public Object cacheRemove(ProceedingJoinPoint joinPoint, CacheRemove cacheRemove) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object result = joinPoint.proceed();
+        // 更新成功后再失效，避免更新期间的读取把旧值重新放回缓存
+        nearCache.remove(cacheRemove.commandKey(), cacheKey(joinPoint, method, cacheRemove.cacheKeyMethod()));
+        return result;
+    }
+
+    // 与javanica一致：没有指定commandKey时使用方法名
+    private String commandKey(Method method) {
+        HystrixCommand command = method.getAnnotation(HystrixCommand.class);
+        return command != null && StringUtils.hasText(command.commandKey()) ? command.commandKey() : method.getName();
+    }
+
+    private String cacheKey(ProceedingJoinPoint joinPoint, Method method, String cacheKeyMethod) {
+        Object[] args = joinPoint.getArgs();
+        if (StringUtils.hasText(cacheKeyMethod)) {
+            Method keyMethod = ReflectionUtils.findMethod(joinPoint.getTarget().getClass(), cacheKeyMethod, method.getParameterTypes());
+            ReflectionUtils.makeAccessible(keyMethod);
+            return String.valueOf(ReflectionUtils.invokeMethod(keyMethod, joinPoint.getTarget(), args));
+        }
+        // 有 @CacheKey 的参数只取这些参数，@CacheKey("id") 取参数对象的id属性
+        List<String> keys = new ArrayList<>();
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof CacheKey) {
+                    String property = ((CacheKey) annotation).value();
+                    Object key = StringUtils.hasText(property) && args[i] != null
+                            ? new BeanWrapperImpl(args[i]).getPropertyValue(property) : args[i];
+                    keys.add(String.valueOf(key));
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            for (Object arg : args) {
+                keys.add(String.valueOf(arg));
+            }
+        }
+        return StringUtils.collectionToCommaDelimitedString(keys);
+    }
+
+    private boolean fromFallback(String commandKey) {
+        if (!HystrixRequestContext.isCurrentThreadInitialized()) {
+            return false;
+        }
+        HystrixInvokableInfo<?> last = null;
+        for (HystrixInvokableInfo<?> command : HystrixRequestLog.getCurrentRequest().getAllExecutedCommands()) {
+            if (command.getCommandKey().name().equals(commandKey)) {
+                last = command;
+            }
+        }
+        return last != null && last.isResponseFromFallback();
+    }
+}
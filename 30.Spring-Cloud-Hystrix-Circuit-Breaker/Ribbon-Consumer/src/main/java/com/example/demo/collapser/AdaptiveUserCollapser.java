@@ -0,0 +1,157 @@
+package com.example.demo.collapser;
+
+import com.example.demo.Service.UserService;
+import com.example.demo.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 跨请求合并单个用户查询。攒够maxBatchSize个请求或等待窗口到期时（先到者为准），
+ * 通过一次 /user/users?ids= 批量获取。
+ * 等待窗口自适应：定时触发的批次中有多个请求时说明合并有效，窗口逐步加大；
+ * 只有一个请求时说明并发低，等待只会增加延迟，窗口减半
+ *
+ * @author MrBird
+ */
+@Component
+public class AdaptiveUserCollapser implements DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final UserService userService;
+    private final int maxBatchSize;
+    private final long minWindowMicros;
+    private final long maxWindowMicros;
+    private volatile long windowMicros;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    // 执行批量请求的线程，避免阻塞调用方和定时线程
+    private final ExecutorService batchExecutor;
+
+    private final Object lock = new Object();
+    private List<PendingRequest> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final AtomicLong batchCalls = new AtomicLong();
+
+    public AdaptiveUserCollapser(UserService userService,
+                                 @Value("${collapser.user.max-batch-size:100}") int maxBatchSize,
+                                 @Value("${collapser.user.min-window-micros:1000}") long minWindowMicros,
+                                 @Value("${collapser.user.max-window-micros:20000}") long maxWindowMicros,
+                                 @Value("${collapser.user.batch-threads:10}") int batchThreads) {
+        this.userService = userService;
+        this.maxBatchSize = maxBatchSize;
+        this.minWindowMicros = minWindowMicros;
+        this.maxWindowMicros = maxWindowMicros;
+        this.windowMicros = minWindowMicros;
+        this.batchExecutor = Executors.newFixedThreadPool(batchThreads);
+    }
+
+    public CompletableFuture<User> findUser(Long id) {
+        CompletableFuture<User> future = new CompletableFuture<>();
+        List<PendingRequest> batch = null;
+        synchronized (lock) {
+            pending.add(new PendingRequest(id, future));
+            if (pending.size() >= maxBatchSize) {
+                // 数量达到上限，立即发出
+                batch = drain();
+            } else if (pending.size() == 1) {
+                // 窗口内的第一个请求，开始计时
+                scheduledFlush = timer.schedule(this::flushOnTimer, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+        return future;
+    }
+
+    private void flushOnTimer() {
+        List<PendingRequest> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        adapt(batch.size());
+        submit(batch);
+    }
+
+    private List<PendingRequest> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<PendingRequest> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void adapt(int batchSize) {
+        if (batchSize > 1) {
+            windowMicros = Math.min(maxWindowMicros, windowMicros + Math.max(1, windowMicros / 10));
+        } else {
+            windowMicros = Math.max(minWindowMicros, windowMicros / 2);
+        }
+    }
+
+    private void submit(List<PendingRequest> batch) {
+        batchExecutor.execute(() -> execute(batch));
+    }
+
+    private void execute(List<PendingRequest> batch) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>();
+        batch.forEach(request -> ids.add(request.id));
+        try {
+            batchCalls.incrementAndGet();
+            List<User> users = userService.findUserBatch(new ArrayList<>(ids));
+            Map<Long, User> userMap = new HashMap<>(users.size() * 4 / 3 + 1);
+            users.forEach(user -> userMap.put(user.getId(), user));
+            batch.forEach(request -> request.future.complete(userMap.get(request.id)));
+        } catch (Exception e) {
+            log.error("批量获取用户信息失败, ids: " + ids, e);
+            batch.forEach(request -> request.future.completeExceptionally(e));
+        }
+    }
+
+    public long getBatchCalls() {
+        return batchCalls.get();
+    }
+
+    public long getWindowMicros() {
+        return windowMicros;
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        batchExecutor.shutdown();
+    }
+
+    private static class PendingRequest {
+        private final Long id;
+        private final CompletableFuture<User> future;
+
+        PendingRequest(Long id, CompletableFuture<User> future) {
+            this.id = id;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.collapser;
+
+import com.example.demo.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模拟大量并发的单个用户查询，对比请求合并前后的服务提供方调用次数和p99延迟
+ *
+ * @author MrBird
+ */
+@Component
+public class CollapserBenchmark {
+
+    @Autowired
+    private AdaptiveUserCollapser adaptiveUserCollapser;
+    @Autowired
+    private RestTemplate restTemplate;
+
+    /**
+     * @param requests 并发请求数
+     * @param collapse true：经过请求合并；false：每个请求直接调用 /user/{id}
+     */
+    public Map<String, Object> run(int requests, boolean collapse) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(requests);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        long batchCallsBefore = adaptiveUserCollapser.getBatchCalls();
+
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long id = i % 100 + 1;
+            clients.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    if (collapse) {
+                        adaptiveUserCollapser.findUser(id).get(5, TimeUnit.SECONDS);
+                    } else {
+                        restTemplate.getForObject("http://Server-Provider/user/{id}", User.class, id);
+                    }
+                    latencies[index] = System.nanoTime() - begin;
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    latencies[index] = Long.MAX_VALUE;
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        clients.shutdown();
+
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("collapse", collapse);
+        result.put("providerCalls", collapse ? adaptiveUserCollapser.getBatchCalls() - batchCallsBefore : requests);
+        result.put("errors", errors.get());
+        result.put("p50Ms", percentile(latencies, 0.5));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("windowMicros", adaptiveUserCollapser.getWindowMicros());
+        return result;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        long nanos = sortedLatencies[Math.max(0, index)];
+        return nanos == Long.MAX_VALUE ? -1 : nanos / 1_000_000.0;
+    }
+}
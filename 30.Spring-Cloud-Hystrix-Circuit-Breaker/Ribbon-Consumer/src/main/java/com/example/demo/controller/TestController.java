@@ -1,13 +1,18 @@
 package com.example.demo.controller;
 
 import com.example.demo.Service.UserService;
+import com.example.demo.cache.NearCache;
+import com.example.demo.collapser.AdaptiveUserCollapser;
+import com.example.demo.collapser.CollapserBenchmark;
 import com.example.demo.domain.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -16,6 +21,12 @@ public class TestController {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private AdaptiveUserCollapser adaptiveUserCollapser;
+    @Autowired
+    private CollapserBenchmark collapserBenchmark;
+    @Autowired
+    private NearCache nearCache;
 
     @GetMapping("testRequestMerge")
     public void testRequerstMerge() throws InterruptedException, ExecutionException {
@@ -30,6 +41,17 @@ public class TestController {
         f4.get();
     }
 
+    @GetMapping("user/collapse/{id}")
+    public User getUserCollapsed(@PathVariable Long id) throws InterruptedException, ExecutionException {
+        return adaptiveUserCollapser.findUser(id).get();
+    }
+
+    @GetMapping("testCollapserBenchmark")
+    public Map<String, Object> testCollapserBenchmark(@RequestParam(defaultValue = "1000") int requests,
+                                                      @RequestParam(defaultValue = "true") boolean collapse) throws InterruptedException {
+        return collapserBenchmark.run(requests, collapse);
+    }
+
     @GetMapping("testCache")
     public void testCache() {
         userService.getUser(1L);
@@ -37,6 +59,11 @@ public class TestController {
         userService.getUser(1L);
     }
 
+    @GetMapping("cache/stats")
+    public Map<String, Map<String, Long>> cacheStats() {
+        return nearCache.stats();
+    }
+
     @GetMapping("user/{id}")
     public User getUser(@PathVariable Long id) {
         return userService.getUser(id);
@@ -0,0 +1,83 @@
+package com.example.demo.loadbalancer;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟感知的负载均衡规则：随机取两个可用实例（power of two choices），
+ * 选择 Peak EWMA响应时间 * (正在处理的请求数 + 1) 较小的一个。
+ * 相比遍历所有实例取最优，随机两选一避免了所有消费者同时涌向同一个"最快"实例。
+ * 还没有响应数据的实例按其他实例的平均EWMA计算，都没有数据时使用默认响应时间
+ *
+ * @author MrBird
+ */
+public class PeakEwmaRule extends AbstractLoadBalancerRule {
+
+    // 所有实例都没有响应数据时使用的响应时间
+    private static final double DEFAULT_RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final InstanceLatencyStats stats;
+
+    public PeakEwmaRule() {
+        this(InstanceLatencyStats.getInstance());
+    }
+
+    public PeakEwmaRule(InstanceLatencyStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+
+    @Override
+    public Server choose(Object key) {
+        ILoadBalancer lb = getLoadBalancer();
+        if (lb == null) {
+            return null;
+        }
+        List<Server> servers = lb.getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return servers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Server a = servers.get(first);
+        Server b = servers.get(second);
+        double coldEwma = coldEwma(servers);
+        double costA = stats.cost(a.getHostPort(), coldEwma);
+        double costB = stats.cost(b.getHostPort(), coldEwma);
+        if (costA == costB) {
+            return stats.outstanding(a.getHostPort()) <= stats.outstanding(b.getHostPort()) ? a : b;
+        }
+        return costA < costB ? a : b;
+    }
+
+    // 有响应数据的实例的平均EWMA
+    private double coldEwma(List<Server> servers) {
+        double sum = 0;
+        int count = 0;
+        for (Server server : servers) {
+            double ewma = stats.ewma(server.getHostPort());
+            if (ewma > 0) {
+                sum += ewma;
+                count++;
+            }
+        }
+        return count == 0 ? DEFAULT_RTT_NANOS : sum / count;
+    }
+}
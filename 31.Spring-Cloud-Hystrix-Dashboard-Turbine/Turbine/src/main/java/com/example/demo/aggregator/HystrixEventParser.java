@@ -0,0 +1,88 @@
+package com.example.demo.aggregator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 增量解析 hystrix.stream 的单个事件：逐个读取token，只保留聚合需要的数值字段，
+ * 延迟百分位等嵌套对象直接跳过，不构造Map
+ *
+ * @author MrBird
+ */
+public class HystrixEventParser {
+
+    // 参与聚合的字段，数组下标即字段在计数数组中的位置
+    static final String[] FIELDS = {
+            "requestCount", "errorCount",
+            "rollingCountSuccess", "rollingCountFailure", "rollingCountTimeout",
+            "rollingCountShortCircuited", "rollingCountThreadPoolRejected", "rollingCountSemaphoreRejected",
+            "rollingCountFallbackSuccess", "rollingCountFallbackFailure",
+            "currentConcurrentExecutionCount", "isCircuitBreakerOpen",
+            "latencyExecute_mean", "latencyTotal_mean",
+            "currentActiveCount", "currentQueueSize", "rollingCountThreadsExecuted"
+    };
+    // 各实例取平均值而不是求和的字段
+    static final boolean[] AVERAGED = new boolean[FIELDS.length];
+
+    private static final Map<String, Integer> FIELD_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < FIELDS.length; i++) {
+            FIELD_INDEX.put(FIELDS[i], i);
+        }
+        AVERAGED[FIELD_INDEX.get("latencyExecute_mean")] = true;
+        AVERAGED[FIELD_INDEX.get("latencyTotal_mean")] = true;
+    }
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * @param json   事件内容（不含 "data:" 前缀）
+     * @param values 解析出的字段值写入该数组，长度为 FIELDS.length
+     * @return 事件的聚合键 type:name，不是命令或线程池事件时返回null
+     */
+    public String parse(String json, long[] values) throws IOException {
+        String type = null;
+        String name = null;
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                } else if ("type".equals(field)) {
+                    type = parser.getText();
+                } else if ("name".equals(field)) {
+                    name = parser.getText();
+                } else {
+                    Integer index = FIELD_INDEX.get(field);
+                    if (index != null) {
+                        values[index] = toLong(parser, token);
+                    }
+                }
+            }
+        }
+        if (name == null || !("HystrixCommand".equals(type) || "HystrixThreadPool".equals(type))) {
+            return null;
+        }
+        return type + ":" + name;
+    }
+
+    private static long toLong(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_TRUE) {
+            return 1;
+        }
+        if (token.isNumeric()) {
+            return parser.getValueAsLong();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.demo.aggregator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 精简聚合模式：从注册中心获取 turbine.app-config 的实例，读取各实例的 /hystrix.stream
+ * 交给 StreamingAggregator 聚合，按固定间隔向 /turbine.lite.stream 的订阅者推送变化的字段
+ *
+ * @author MrBird
+ */
+@Component
+@ConditionalOnProperty(name = "turbine.lite.enabled", havingValue = "true")
+public class InstanceStreamCollector implements DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final DiscoveryClient discoveryClient;
+    private final String appConfig;
+    private final StreamingAggregator aggregator = new StreamingAggregator();
+    private final long readTimeout;
+    private final Map<String, StreamReader> readers = new ConcurrentHashMap<>();
+    private final ExecutorService readerExecutor = Executors.newCachedThreadPool();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    public InstanceStreamCollector(DiscoveryClient discoveryClient,
+                                   @Value("${turbine.app-config}") String appConfig,
+                                   @Value("${turbine.lite.read-timeout:10000}") long readTimeout) {
+        this.discoveryClient = discoveryClient;
+        this.appConfig = appConfig;
+        this.readTimeout = readTimeout;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    public Map<String, Object> stats() {
+        return aggregator.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${turbine.lite.refresh-interval:30000}")
+    public void refreshInstances() {
+        Set<String> current = new HashSet<>();
+        for (String app : appConfig.split(",")) {
+            for (ServiceInstance instance : discoveryClient.getInstances(app.trim())) {
+                String id = instance.getHost() + ":" + instance.getPort();
+                current.add(id);
+                if (!readers.containsKey(id)) {
+                    // 先登记再启动，避免读取线程在登记前就结束，留下失效的记录
+                    StreamReader reader = new StreamReader(id, instance);
+                    if (readers.putIfAbsent(id, reader) == null) {
+                        reader.future = readerExecutor.submit(reader::read);
+                    }
+                }
+            }
+        }
+        for (String id : readers.keySet()) {
+            if (current.contains(id)) {
+                continue;
+            }
+            // 读取线程可能同时结束并移除了自己
+            StreamReader reader = readers.remove(id);
+            if (reader != null) {
+                reader.close();
+                aggregator.removeInstance(id);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${turbine.lite.emit-interval:500}")
+    public void emit() {
+        List<Map<String, Object>> changes = aggregator.drainChanges();
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (Map<String, Object> change : changes) {
+                    emitter.send(change);
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        readers.values().forEach(StreamReader::close);
+        readerExecutor.shutdownNow();
+    }
+
+    /**
+     * 读取单个实例的 /hystrix.stream。阻塞在socket读取上的线程不响应中断，
+     * 移除实例时需要断开连接才能让线程退出
+     */
+    private class StreamReader {
+        private final String id;
+        private final ServiceInstance instance;
+        private volatile Future<?> future;
+        private volatile HttpURLConnection connection;
+        private volatile boolean closed;
+
+        StreamReader(String id, ServiceInstance instance) {
+            this.id = id;
+            this.instance = instance;
+        }
+
+        void read() {
+            try {
+                connection = (HttpURLConnection) new URL(instance.getUri() + "/hystrix.stream").openConnection();
+                connection.setConnectTimeout(2000);
+                // hystrix.stream 空闲时也会定时发送ping，超过几个心跳周期没有数据说明连接已经失效
+                connection.setReadTimeout((int) readTimeout);
+                if (closed) {
+                    return;
+                }
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while (!closed && (line = reader.readLine()) != null) {
+                        if (line.startsWith("data:")) {
+                            aggregator.onEvent(id, line.substring(5).trim());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    log.warn("读取 " + id + " 的hystrix.stream失败: " + e.getMessage());
+                }
+            } finally {
+                // 连接断开后移除，下次刷新实例列表时重连；已被替换的记录不能移除
+                if (readers.remove(id, this)) {
+                    aggregator.removeInstance(id);
+                }
+                if (connection != null) {
+                    connection.disconnect();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            HttpURLConnection current = connection;
+            if (current != null) {
+                current.disconnect();
+            }
+            Future<?> task = future;
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.aggregator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.demo.aggregator.HystrixEventParser.AVERAGED;
+import static com.example.demo.aggregator.HystrixEventParser.FIELDS;
+
+/**
+ * 低内存的Hystrix指标聚合：每个实例每个命令只保存一组long值，
+ * 新事件到达时按与上次的差值更新汇总数组，不保留事件对象；
+ * 定时调用 drainChanges 只输出自上次输出以来发生变化的字段
+ *
+ * @author MrBird
+ */
+public class StreamingAggregator {
+
+    private static final int FIELD_COUNT = FIELDS.length;
+    // 每个实例的数组中，每个命令占 FIELD_COUNT 个值加一个"已上报"标记
+    private static final int STRIDE = FIELD_COUNT + 1;
+
+    private final HystrixEventParser parser = new HystrixEventParser();
+    private final ThreadLocal<long[]> buffer = ThreadLocal.withInitial(() -> new long[FIELD_COUNT]);
+
+    private final Map<String, Integer> keyIndex = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, long[]> instances = new HashMap<>();
+    private long[] totals = new long[0];
+    private long[] emitted = new long[0];
+    private int[] reportingHosts = new int[0];
+    private int[] emittedHosts = new int[0];
+
+    private long events;
+
+    /**
+     * 处理一个实例上报的事件。解析在锁外进行，锁内只做数组加减
+     */
+    public void onEvent(String instance, String json) throws IOException {
+        long[] values = buffer.get();
+        Arrays.fill(values, 0);
+        String key = parser.parse(json, values);
+        if (key == null) {
+            return;
+        }
+        synchronized (this) {
+            events++;
+            int index = indexOf(key);
+            long[] state = instanceState(instance);
+            int base = index * STRIDE;
+            if (state[base + FIELD_COUNT] == 0) {
+                state[base + FIELD_COUNT] = 1;
+                reportingHosts[index]++;
+            }
+            int totalBase = index * FIELD_COUNT;
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                totals[totalBase + f] += values[f] - state[base + f];
+                state[base + f] = values[f];
+            }
+        }
+    }
+
+    /**
+     * 实例下线时从汇总中扣除它最后一次上报的值
+     */
+    public synchronized void removeInstance(String instance) {
+        long[] state = instances.remove(instance);
+        if (state == null) {
+            return;
+        }
+        for (int index = 0; index < state.length / STRIDE; index++) {
+            int base = index * STRIDE;
+            if (state[base + FIELD_COUNT] == 0) {
+                continue;
+            }
+            reportingHosts[index]--;
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                totals[index * FIELD_COUNT + f] -= state[base + f];
+            }
+        }
+    }
+
+    /**
+     * 返回自上次调用以来发生变化的命令及其变化的字段，平均值字段按上报实例数取平均
+     */
+    public synchronized List<Map<String, Object>> drainChanges() {
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (int index = 0; index < keys.size(); index++) {
+            int totalBase = index * FIELD_COUNT;
+            Map<String, Object> change = null;
+            int hosts = reportingHosts[index];
+            if (hosts != emittedHosts[index]) {
+                change = newChange(index);
+                change.put("reportingHosts", hosts);
+                emittedHosts[index] = hosts;
+            }
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                long total = totals[totalBase + f];
+                if (total == emitted[totalBase + f]) {
+                    continue;
+                }
+                if (change == null) {
+                    change = newChange(index);
+                }
+                change.put(FIELDS[f], AVERAGED[f] && hosts > 0 ? total / hosts : total);
+                emitted[totalBase + f] = total;
+            }
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("instances", instances.size());
+        stats.put("keys", keys.size());
+        stats.put("events", events);
+        long stateBytes = (long) totals.length * 16 + reportingHosts.length * 8L;
+        for (long[] state : instances.values()) {
+            stateBytes += state.length * 8L;
+        }
+        stats.put("stateBytes", stateBytes);
+        return stats;
+    }
+
+    private Map<String, Object> newChange(int index) {
+        String key = keys.get(index);
+        int separator = key.indexOf(':');
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("type", key.substring(0, separator));
+        change.put("name", key.substring(separator + 1));
+        return change;
+    }
+
+    private int indexOf(String key) {
+        Integer index = keyIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        index = keys.size();
+        keys.add(key);
+        keyIndex.put(key, index);
+        if (index >= reportingHosts.length) {
+            int capacity = Math.max(16, reportingHosts.length * 2);
+            totals = Arrays.copyOf(totals, capacity * FIELD_COUNT);
+            emitted = Arrays.copyOf(emitted, capacity * FIELD_COUNT);
+            reportingHosts = Arrays.copyOf(reportingHosts, capacity);
+            emittedHosts = Arrays.copyOf(emittedHosts, capacity);
+        }
+        return index;
+    }
+
+    private long[] instanceState(String instance) {
+        long[] state = instances.get(instance);
+        int required = keys.size() * STRIDE;
+        if (state == null || state.length < required) {
+            state = state == null ? new long[required] : Arrays.copyOf(state, required);
+            instances.put(instance, state);
+        }
+        return state;
+    }
+}
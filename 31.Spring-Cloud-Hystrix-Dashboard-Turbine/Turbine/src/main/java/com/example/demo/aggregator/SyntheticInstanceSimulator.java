@@ -0,0 +1,175 @@
+package com.example.demo.aggregator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟大量实例上报 hystrix.stream 事件，对比完整解析再序列化的聚合方式
+ * 和 StreamingAggregator 的CPU耗时、内存分配量和常驻内存。
+ * 每一轮相当于Hystrix的一个上报周期（默认500ms），每个实例的每个命令上报一个事件
+ *
+ * @author MrBird
+ */
+@Component
+public class SyntheticInstanceSimulator {
+
+    // 每个命令预先生成的事件数，避免把生成事件的开销计入测量结果
+    private static final int VARIANTS = 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param instances 实例数
+     * @param commands  每个实例的命令数
+     * @param rounds    上报周期数
+     * @param streaming true：StreamingAggregator；false：完整解析、保存事件Map并在每轮重新序列化
+     */
+    public Map<String, Object> run(int instances, int commands, int rounds, boolean streaming) throws Exception {
+        String[][] events = new String[commands][VARIANTS];
+        for (int c = 0; c < commands; c++) {
+            for (int v = 0; v < VARIANTS; v++) {
+                events[c][v] = event("command" + c, v);
+            }
+        }
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long heapBefore = usedHeapAfterGc();
+        long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+        long allocatedBefore = allocatedBytes(threadMXBean);
+
+        Object aggregator;
+        int emitted = 0;
+        if (streaming) {
+            StreamingAggregator streamingAggregator = new StreamingAggregator();
+            aggregator = streamingAggregator;
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < instances; i++) {
+                    String instance = "instance-" + i;
+                    for (int c = 0; c < commands; c++) {
+                        streamingAggregator.onEvent(instance, events[c][(i + round) % VARIANTS]);
+                    }
+                }
+                emitted += streamingAggregator.drainChanges().size();
+            }
+        } else {
+            FullAggregator fullAggregator = new FullAggregator();
+            aggregator = fullAggregator;
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < instances; i++) {
+                    String instance = "instance-" + i;
+                    for (int c = 0; c < commands; c++) {
+                        fullAggregator.onEvent(instance, events[c][(i + round) % VARIANTS]);
+                    }
+                }
+                emitted += fullAggregator.emit().size();
+            }
+        }
+
+        long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = allocatedBytes(threadMXBean) - allocatedBefore;
+        long retained = usedHeapAfterGc() - heapBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", streaming ? "streaming" : "full");
+        result.put("instances", instances);
+        result.put("commands", commands);
+        result.put("events", (long) instances * commands * rounds);
+        result.put("emitted", emitted);
+        result.put("cpuMs", TimeUnit.NANOSECONDS.toMillis(cpu));
+        // 按500ms上报周期折算的单核CPU占用
+        result.put("cpuPercentPerCore", rounds == 0 ? 0 : cpu / rounds * 100 / TimeUnit.MILLISECONDS.toNanos(500));
+        result.put("allocatedMB", allocated < 0 ? -1 : allocated / 1024 / 1024);
+        result.put("retainedKB", retained / 1024);
+        // 保证聚合器在测量常驻内存时仍然可达
+        result.put("aggregator", aggregator.getClass().getSimpleName());
+        return result;
+    }
+
+    private String event(String name, int variant) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "HystrixCommand");
+        event.put("name", name);
+        event.put("group", "userGroup");
+        event.put("currentTime", System.currentTimeMillis());
+        event.put("isCircuitBreakerOpen", variant == 0);
+        event.put("errorPercentage", random.nextInt(5));
+        event.put("errorCount", random.nextInt(10));
+        event.put("requestCount", 100 + variant * 10);
+        for (String field : HystrixEventParser.FIELDS) {
+            event.putIfAbsent(field, random.nextInt(1000));
+        }
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (String percentile : new String[]{"0", "25", "50", "75", "90", "95", "99", "99.5", "100"}) {
+            percentiles.put(percentile, random.nextInt(200));
+        }
+        event.put("latencyExecute", percentiles);
+        event.put("latencyTotal", percentiles);
+        event.put("propertyValue_circuitBreakerRequestVolumeThreshold", 20);
+        event.put("propertyValue_executionIsolationStrategy", "THREAD");
+        event.put("reportingHosts", 1);
+        event.put("threadPool", "getUserThread");
+        // 只取最终的JSON字符串
+        return objectMapper.writeValueAsString(event);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes(ThreadMXBean threadMXBean) {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * 对照组：与原聚合方式相同，完整解析每个事件并保存各实例最新的事件Map，输出时重新汇总并序列化
+     */
+    private class FullAggregator {
+        private final Map<String, Map<String, Map<String, Object>>> latest = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        void onEvent(String instance, String json) throws Exception {
+            Map<String, Object> event = objectMapper.readValue(json, Map.class);
+            latest.computeIfAbsent(instance, key -> new HashMap<>()).put((String) event.get("name"), event);
+        }
+
+        List<String> emit() throws Exception {
+            Map<String, Map<String, Object>> aggregated = new HashMap<>();
+            for (Map<String, Map<String, Object>> commands : latest.values()) {
+                for (Map.Entry<String, Map<String, Object>> command : commands.entrySet()) {
+                    Map<String, Object> sum = aggregated.computeIfAbsent(command.getKey(), key -> new LinkedHashMap<>());
+                    for (Map.Entry<String, Object> field : command.getValue().entrySet()) {
+                        Object value = field.getValue();
+                        if (value instanceof Number) {
+                            Object current = sum.get(field.getKey());
+                            long base = current instanceof Number ? ((Number) current).longValue() : 0;
+                            sum.put(field.getKey(), base + ((Number) value).longValue());
+                        } else {
+                            sum.putIfAbsent(field.getKey(), value);
+                        }
+                    }
+                }
+            }
+            List<String> output = new ArrayList<>();
+            for (Map<String, Object> sum : aggregated.values()) {
+                output.add(objectMapper.writeValueAsString(sum));
+            }
+            return output;
+        }
+    }
+}
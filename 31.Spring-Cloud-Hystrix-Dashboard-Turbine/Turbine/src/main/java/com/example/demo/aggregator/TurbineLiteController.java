@@ -0,0 +1,52 @@
+package com.example.demo.aggregator;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * @author MrBird
+ */
+@RestController
+public class TurbineLiteController {
+
+    private final ObjectProvider<InstanceStreamCollector> collector;
+    private final SyntheticInstanceSimulator simulator;
+
+    public TurbineLiteController(ObjectProvider<InstanceStreamCollector> collector,
+                                 SyntheticInstanceSimulator simulator) {
+        this.collector = collector;
+        this.simulator = simulator;
+    }
+
+    // 只推送发生变化的字段，需要开启 turbine.lite.enabled
+    @GetMapping("turbine.lite.stream")
+    public SseEmitter stream() {
+        return requireCollector().subscribe();
+    }
+
+    @GetMapping("turbine/lite/stats")
+    public Map<String, Object> stats() {
+        return requireCollector().stats();
+    }
+
+    @GetMapping("turbine/simulate")
+    public Map<String, Object> simulate(@RequestParam(defaultValue = "500") int instances,
+                                        @RequestParam(defaultValue = "10") int commands,
+                                        @RequestParam(defaultValue = "20") int rounds,
+                                        @RequestParam(defaultValue = "true") boolean streaming) throws Exception {
+        return simulator.run(instances, commands, rounds, streaming);
+    }
+
+    private InstanceStreamCollector requireCollector() {
+        InstanceStreamCollector instance = collector.getIfAvailable();
+        if (instance == null) {
+            throw new IllegalStateException("未开启精简聚合模式，请设置 turbine.lite.enabled=true");
+        }
+        return instance;
+    }
+}
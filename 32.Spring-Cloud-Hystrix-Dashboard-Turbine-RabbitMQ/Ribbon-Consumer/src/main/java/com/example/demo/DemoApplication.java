@@ -1,9 +1,12 @@
 package com.example.demo;
 
+import com.example.demo.loadbalancer.InstanceLatencyStats;
+import com.example.demo.loadbalancer.LatencyRecordingRequestFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.cloud.client.SpringCloudApplication;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @SpringCloudApplication
@@ -12,7 +15,9 @@ public class DemoApplication {
     @Bean
     @LoadBalanced
     RestTemplate restTemplate() {
-        return new RestTemplate();
+        // 记录每个实例的响应时间，供 PeakEwmaRule 使用
+        return new RestTemplate(new LatencyRecordingRequestFactory(
+                new SimpleClientHttpRequestFactory(), InstanceLatencyStats.getInstance()));
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,92 @@
+package com.example.demo.loadbalancer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 每个服务实例（host:port）的Peak EWMA响应时间和正在处理的请求数。
+ * 读取时EWMA按距离上次更新的时间衰减，避免因一次变慢而一直选不到、也就没有新数据的实例被饿死。
+ * Ribbon的规则类通过反射创建，不是Spring bean，所以通过静态实例共享
+ *
+ * @author MrBird
+ */
+public class InstanceLatencyStats {
+
+    private static final InstanceLatencyStats INSTANCE = new InstanceLatencyStats(TimeUnit.SECONDS.toNanos(10));
+
+    // EWMA的衰减时间常数，越大历史数据的权重越高
+    private final long decayNanos;
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public InstanceLatencyStats(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    public static InstanceLatencyStats getInstance() {
+        return INSTANCE;
+    }
+
+    public void start(String hostPort) {
+        stats(hostPort).outstanding.incrementAndGet();
+    }
+
+    public void finish(String hostPort, long rttNanos) {
+        Stats s = stats(hostPort);
+        s.outstanding.decrementAndGet();
+        s.observe(rttNanos, System.nanoTime(), decayNanos);
+    }
+
+    /**
+     * 负载代价：EWMA响应时间 * (正在处理的请求数 + 1)。
+     * 还没有响应数据的实例按 coldEwmaNanos 计算，新实例能被选中，同时正在处理的请求数仍然限制它接收的请求
+     */
+    public double cost(String hostPort, double coldEwmaNanos) {
+        double ewma = ewma(hostPort);
+        return (ewma == 0 ? coldEwmaNanos : ewma) * (outstanding(hostPort) + 1);
+    }
+
+    /**
+     * 按当前时间衰减后的EWMA响应时间（纳秒），还没有数据时为0
+     */
+    public double ewma(String hostPort) {
+        Stats s = stats.get(hostPort);
+        return s == null ? 0 : s.ewma(System.nanoTime(), decayNanos);
+    }
+
+    public double ewmaMillis(String hostPort) {
+        return ewma(hostPort) / 1_000_000;
+    }
+
+    public int outstanding(String hostPort) {
+        Stats s = stats.get(hostPort);
+        return s == null ? 0 : s.outstanding.get();
+    }
+
+    private Stats stats(String hostPort) {
+        return stats.computeIfAbsent(hostPort, key -> new Stats());
+    }
+
+    private static class Stats {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastUpdate = System.nanoTime();
+
+        synchronized void observe(long rttNanos, long now, long decayNanos) {
+            if (rttNanos > ewmaNanos) {
+                // Peak EWMA：响应变慢时立即反映，变快时逐渐衰减
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdate) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        // 没有新数据时向0衰减，被摘走流量的实例过一段时间后会重新被选中并得到新的数据
+        synchronized double ewma(long now, long decayNanos) {
+            return ewmaNanos * Math.exp(-(double) Math.max(0, now - lastUpdate) / decayNanos);
+        }
+    }
+}
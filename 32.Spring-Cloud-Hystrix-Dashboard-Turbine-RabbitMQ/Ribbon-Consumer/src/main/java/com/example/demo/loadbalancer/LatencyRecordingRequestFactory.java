@@ -0,0 +1,76 @@
+package com.example.demo.loadbalancer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * 记录每个服务实例的响应时间和正在处理的请求数，供 PeakEwmaRule 选择实例。
+ * 拦截器拿到的还是服务名形式的URI（http://Server-Provider/...），
+ * 而请求工厂创建请求时Ribbon已经替换成了实际的 host:port
+ *
+ * @author MrBird
+ */
+public class LatencyRecordingRequestFactory implements ClientHttpRequestFactory {
+
+    private final ClientHttpRequestFactory delegate;
+    private final InstanceLatencyStats stats;
+
+    public LatencyRecordingRequestFactory(ClientHttpRequestFactory delegate, InstanceLatencyStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new LatencyRecordingRequest(delegate.createRequest(uri, httpMethod));
+    }
+
+    private class LatencyRecordingRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest request;
+
+        LatencyRecordingRequest(ClientHttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            String hostPort = request.getURI().getHost() + ":" + request.getURI().getPort();
+            stats.start(hostPort);
+            long start = System.nanoTime();
+            try {
+                return request.execute();
+            } finally {
+                // 失败的请求同样计入，连接超时等慢失败会推高该实例的EWMA
+                stats.finish(hostPort, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.UserService;
+import feign.Client;
+import feign.Feign;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.feign.FeignContext;
+import org.springframework.cloud.netflix.feign.support.SpringMvcContract;
+import org.springframework.cloud.netflix.feign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.netflix.feign.ribbon.LoadBalancerFeignClient;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对比原来的HttpURLConnection客户端和连接池+gzip压缩的客户端，两者都经过Ribbon负载均衡，不经过Hystrix。
+ * HttpURLConnection不会自动解压gzip响应，所以只有连接池客户端带上压缩相关的请求拦截器
+ *
+ * @author MrBird
+ */
+@Component
+public class FeignTransportBenchmark {
+
+    private static final String SERVICE_ID = "Server-Provider";
+
+    private final UserService pooledClient;
+    private final UserService defaultClient;
+    private final String pooledTransport;
+
+    @Autowired
+    public FeignTransportBenchmark(Client feignClient, FeignContext feignContext,
+                                   CachingSpringLoadBalancerFactory loadBalancerFactory,
+                                   SpringClientFactory clientFactory) {
+        // feign.httpclient.enabled=true 时容器中的Client即为连接池客户端
+        Collection<RequestInterceptor> interceptors = feignContext.getInstances(SERVICE_ID, RequestInterceptor.class).values();
+        this.pooledClient = build(feignClient, feignContext, interceptors);
+        this.defaultClient = build(new LoadBalancerFeignClient(new Client.Default(null, null),
+                loadBalancerFactory, clientFactory), feignContext, Collections.emptyList());
+        Client transport = feignClient instanceof LoadBalancerFeignClient
+                ? ((LoadBalancerFeignClient) feignClient).getDelegate() : feignClient;
+        this.pooledTransport = transport.getClass().getSimpleName();
+    }
+
+    private static UserService build(Client client, FeignContext feignContext, Collection<RequestInterceptor> interceptors) {
+        return Feign.builder()
+                .client(client)
+                .requestInterceptors(interceptors)
+                .contract(new SpringMvcContract())
+                .encoder(feignContext.getInstance(SERVICE_ID, Encoder.class))
+                .decoder(feignContext.getInstance(SERVICE_ID, Decoder.class))
+                .target(UserService.class, "http://" + SERVICE_ID);
+    }
+
+    /**
+     * @param calls       总调用次数
+     * @param concurrency 并发线程数
+     * @param pooled      true：连接池客户端；false：默认的HttpURLConnection
+     */
+    public Map<String, Object> run(int calls, int concurrency, boolean pooled) throws InterruptedException {
+        UserService client = pooled ? pooledClient : defaultClient;
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(calls);
+        AtomicInteger sequence = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[calls];
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            callers.execute(() -> {
+                int index;
+                while ((index = sequence.getAndIncrement()) < calls) {
+                    long start = System.nanoTime();
+                    try {
+                        client.get();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        callers.shutdown();
+
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("transport", pooled ? pooledTransport : "HttpURLConnection");
+        result.put("calls", calls);
+        result.put("concurrency", concurrency);
+        result.put("errors", errors.get());
+        result.put("p50Ms", percentile(latencies, 0.5));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("callsPerSecond", elapsed == 0 ? 0 : calls * 1_000_000_000L / elapsed);
+        return result;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+}
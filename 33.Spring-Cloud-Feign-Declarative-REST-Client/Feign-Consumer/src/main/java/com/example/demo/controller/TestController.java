@@ -1,17 +1,25 @@
 package com.example.demo.controller;
 
+import com.example.demo.benchmark.FeignTransportBenchmark;
 import com.example.demo.domain.User;
+import com.example.demo.service.AsyncUserService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class TestController {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private AsyncUserService asyncUserService;
+    @Autowired
+    private FeignTransportBenchmark feignTransportBenchmark;
 
     @GetMapping("user/{id}")
     public User getUser(@PathVariable Long id) {
@@ -23,6 +31,18 @@ public class TestController {
         return userService.get();
     }
 
+    @GetMapping("async/user/{id}")
+    public CompletableFuture<User> getUserAsync(@PathVariable Long id) {
+        return asyncUserService.get(id);
+    }
+
+    @GetMapping("testFeign")
+    public Map<String, Object> testFeign(@RequestParam(defaultValue = "2000") int calls,
+                                         @RequestParam(defaultValue = "50") int concurrency,
+                                         @RequestParam(defaultValue = "true") boolean pooled) throws InterruptedException {
+        return feignTransportBenchmark.run(calls, concurrency, pooled);
+    }
+
     @PostMapping("user")
     public void addUser() {
         User user = new User(1L, "mrbird", "123456");
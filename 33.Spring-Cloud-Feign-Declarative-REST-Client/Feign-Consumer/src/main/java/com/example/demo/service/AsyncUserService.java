@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.User;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * UserService 的异步版本，返回 CompletableFuture。
+ * 当前Feign版本不支持异步客户端，调用在有界线程池中执行，队列满时返回失败的future而不是阻塞调用方
+ *
+ * @author MrBird
+ */
+@Service
+public class AsyncUserService implements DisposableBean {
+
+    @Autowired
+    private UserService userService;
+
+    private final ThreadPoolExecutor executor;
+
+    public AsyncUserService(@Value("${async-feign.threads:50}") int threads,
+                            @Value("${async-feign.queue-capacity:1000}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<User> get(Long id) {
+        return supply(() -> userService.get(id));
+    }
+
+    public CompletableFuture<List<User>> get() {
+        return supply(userService::get);
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
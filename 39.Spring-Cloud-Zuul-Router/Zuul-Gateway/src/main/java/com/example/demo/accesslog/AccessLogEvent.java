@@ -0,0 +1,61 @@
+package com.example.demo.accesslog;
+
+/**
+ * 一条访问日志，只保存原始值，格式化在后台线程中进行
+ *
+ * @author MrBird
+ */
+public class AccessLogEvent {
+
+    final long timestamp;
+    final String route;
+    final String method;
+    final String uri;
+    final String ip;
+    final int status;
+    final long latencyMicros;
+
+    public AccessLogEvent(long timestamp, String route, String method, String uri, String ip, int status, long latencyMicros) {
+        this.timestamp = timestamp;
+        this.route = route;
+        this.method = method;
+        this.uri = uri;
+        this.ip = ip;
+        this.status = status;
+        this.latencyMicros = latencyMicros;
+    }
+
+    void appendJson(StringBuilder builder) {
+        builder.append("{\"ts\":").append(timestamp)
+                .append(",\"route\":");
+        appendString(builder, route);
+        builder.append(",\"method\":");
+        appendString(builder, method);
+        builder.append(",\"uri\":");
+        appendString(builder, uri);
+        builder.append(",\"ip\":");
+        appendString(builder, ip);
+        builder.append(",\"status\":").append(status)
+                .append(",\"latencyUs\":").append(latencyMicros)
+                .append("}\n");
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.accesslog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关访问日志配置
+ *
+ * @author MrBird
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+    // JSON Lines格式的日志文件
+    private String file = "logs/access.log";
+    // 没有单独配置的路由的采样率，0~1
+    private double sampleRate = 0.1;
+    // 路由id -> 采样率
+    private Map<String, Double> routes = new HashMap<>();
+    // 缓冲区最多保存的日志条数，写入跟不上时丢弃新日志
+    private int bufferSize = 65536;
+    // 后台线程写出日志的间隔（毫秒）
+    private long flushInterval = 200;
+
+    public double sampleRate(String routeId) {
+        Double rate = routeId == null ? null : routes.get(routeId);
+        return rate != null ? rate : sampleRate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Map<String, Double> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Double> routes) {
+        this.routes = routes;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
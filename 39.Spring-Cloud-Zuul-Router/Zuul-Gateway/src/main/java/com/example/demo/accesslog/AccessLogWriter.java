@@ -0,0 +1,167 @@
+package com.example.demo.accesslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求线程只把日志放入无锁队列，由后台线程定期批量格式化为JSON Lines写入文件；
+ * 队列满时丢弃并计数，不阻塞请求线程。同时维护各路由的延迟直方图（包括未被采样的请求）
+ *
+ * @author MrBird
+ */
+@Component
+public class AccessLogWriter implements InitializingBean, DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final AccessLogProperties properties;
+    private final Queue<AccessLogEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private Thread drainer;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(String routeId, long latencyMicros) {
+        LatencyHistogram histogram = histograms.get(routeId);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(routeId, key -> new LatencyHistogram());
+        }
+        histogram.record(latencyMicros);
+    }
+
+    public void append(AccessLogEvent event) {
+        if (buffered.incrementAndGet() > properties.getBufferSize()) {
+            buffered.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        buffer.offer(event);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        drainer = new Thread(this::drainLoop, "access-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private void drainLoop() {
+        File file = new File(properties.getFile());
+        StringBuilder builder = new StringBuilder(64 * 1024);
+        Writer writer = null;
+        try {
+            while (running || !buffer.isEmpty() || builder.length() > 0) {
+                try {
+                    if (writer == null) {
+                        writer = open(file);
+                    }
+                    drain(writer, builder);
+                } catch (IOException e) {
+                    // 磁盘满、文件被删除等情况下不退出，关闭文件后下个周期重新打开，未写入的内容保留在builder中重试
+                    log.error("写入访问日志失败，" + properties.getFlushInterval() + "毫秒后重试", e);
+                    close(writer);
+                    writer = null;
+                    if (!running) {
+                        break;
+                    }
+                }
+                if (running) {
+                    TimeUnit.MILLISECONDS.sleep(properties.getFlushInterval());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(writer);
+        }
+    }
+
+    private Writer open(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        return new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8);
+    }
+
+    // 先写上次失败时剩下的内容，再批量写入队列中的日志
+    private void drain(Writer writer, StringBuilder builder) throws IOException {
+        AccessLogEvent event;
+        do {
+            if (builder.length() >= 60 * 1024) {
+                writer.write(builder.toString());
+                builder.setLength(0);
+            }
+            event = buffer.poll();
+            if (event != null) {
+                buffered.decrementAndGet();
+                event.appendJson(builder);
+                written.increment();
+            }
+        } while (event != null);
+        if (builder.length() > 0) {
+            writer.write(builder.toString());
+            builder.setLength(0);
+        }
+        writer.flush();
+    }
+
+    private void close(Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("关闭访问日志文件失败: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buffered", buffered.get());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        Map<String, Object> routes = new LinkedHashMap<>();
+        histograms.forEach((routeId, histogram) -> routes.put(routeId, histogram.snapshot()));
+        stats.put("routes", routes);
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            // 等待后台线程写完剩余的日志
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.accesslog;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定区间的延迟直方图，每个区间一个LongAdder，记录时不加锁
+ *
+ * @author MrBird
+ */
+public class LatencyHistogram {
+
+    // 区间上界（毫秒），最后一个区间为大于5000毫秒
+    private static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder totalMicros = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long latencyMicros) {
+        int index = 0;
+        while (index < BOUNDS_MILLIS.length && latencyMicros > BOUNDS_MILLIS[index] * 1000) {
+            index++;
+        }
+        buckets[index].increment();
+        totalMicros.add(latencyMicros);
+    }
+
+    public Map<String, Object> snapshot() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(i < BOUNDS_MILLIS.length ? "<=" + BOUNDS_MILLIS[i] + "ms" : ">" + BOUNDS_MILLIS[i - 1] + "ms", counts[i]);
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", total);
+        snapshot.put("meanMs", total == 0 ? 0 : totalMicros.sum() / total / 1000.0);
+        snapshot.put("p50Ms", percentile(counts, total, 0.5));
+        snapshot.put("p99Ms", percentile(counts, total, 0.99));
+        snapshot.put("histogram", histogram);
+        return snapshot;
+    }
+
+    // 返回百分位所在区间的上界，落在最后一个区间时返回 ">5000"
+    private static Object percentile(long[] counts, long total, double percentile) {
+        long target = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && seen > 0) {
+                return i < BOUNDS_MILLIS.length ? (Object) BOUNDS_MILLIS[i] : ">" + BOUNDS_MILLIS[i - 1];
+            }
+        }
+        return 0;
+    }
+}
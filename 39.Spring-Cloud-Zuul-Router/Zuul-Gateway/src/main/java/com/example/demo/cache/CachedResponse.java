@@ -0,0 +1,61 @@
+package com.example.demo.cache;
+
+import com.netflix.util.Pair;
+
+import java.util.List;
+
+/**
+ * @author MrBird
+ */
+public class CachedResponse {
+
+    private final int status;
+    private final List<Pair<String, String>> headers;
+    private final byte[] body;
+    // 上游返回的是否为gzip压缩后的响应体
+    private final boolean gzipped;
+    // 上游响应是否带有 Cache-Control: public，只有这样的响应可以返回给带凭证的请求
+    private final boolean shared;
+    // 上游响应 Vary 中的请求头（小写），缓存key包含这些请求头的值
+    private final List<String> vary;
+    private final long expireAt;
+
+    public CachedResponse(int status, List<Pair<String, String>> headers, byte[] body, boolean gzipped,
+                          boolean shared, List<String> vary, long expireAt) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.gzipped = gzipped;
+        this.shared = shared;
+        this.vary = vary;
+        this.expireAt = expireAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expireAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<Pair<String, String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isGzipped() {
+        return gzipped;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public List<String> getVary() {
+        return vary;
+    }
+}
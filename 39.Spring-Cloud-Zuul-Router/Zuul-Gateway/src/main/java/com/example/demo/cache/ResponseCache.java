@@ -0,0 +1,168 @@
+package com.example.demo.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按请求缓存上游响应（key为 路由id + 空格 + 请求URI，上游响应带有Vary时再加上对应请求头的值），
+ * 同时记录正在请求上游的key，相同的并发请求只让第一个请求访问上游。
+ * 缓存按最近访问顺序淘汰，同时受条数和总字节数限制
+ *
+ * @author MrBird
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    // 路由id + 请求URI -> 上游响应 Vary 的请求头，按最近访问顺序淘汰，丢失时只会多一次未命中
+    private final Map<String, List<String>> varyHeaders;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.varyHeaders = Collections.synchronizedMap(new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        });
+    }
+
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response != null && response.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            totalSize -= response.getBody().length;
+            return null;
+        }
+        return response;
+    }
+
+    public static String key(String routeId, String uri) {
+        return routeId + " " + uri;
+    }
+
+    /**
+     * 该请求URI上次响应的 Vary 请求头，未知时返回空列表
+     */
+    public List<String> vary(String baseKey) {
+        List<String> vary = varyHeaders.get(baseKey);
+        return vary == null ? Collections.emptyList() : vary;
+    }
+
+    public void vary(String baseKey, List<String> vary) {
+        if (vary.isEmpty()) {
+            varyHeaders.remove(baseKey);
+        } else {
+            varyHeaders.put(baseKey, vary);
+        }
+    }
+
+    public synchronized boolean put(String key, CachedResponse response) {
+        if (response.getBody().length > properties.getMaxBodySize()) {
+            return false;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            totalSize -= previous.getBody().length;
+        }
+        totalSize += response.getBody().length;
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > properties.getMaxEntries() || totalSize > properties.getMaxTotalSize()) && eldest.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = eldest.next();
+            totalSize -= entry.getValue().getBody().length;
+            eldest.remove();
+            stats(entry.getKey().substring(0, entry.getKey().indexOf(' '))).evictions.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 登记正在请求上游的key
+     *
+     * @return 已有相同请求在进行时返回它的future，否则返回null，表示当前请求负责请求上游
+     */
+    public CompletableFuture<CachedResponse> register(String key, CompletableFuture<CachedResponse> leader) {
+        return inFlight.putIfAbsent(key, leader);
+    }
+
+    /**
+     * 首个请求完成后通知等待的请求，response为null表示响应不可缓存，等待的请求需自行请求上游
+     */
+    public void complete(String key, CompletableFuture<CachedResponse> leader, CachedResponse response) {
+        inFlight.remove(key, leader);
+        leader.complete(response);
+    }
+
+    /**
+     * 等待超时后移除仍然登记着的请求，其余等待的请求也不再等待，自行请求上游
+     */
+    public void abandon(String key, CompletableFuture<CachedResponse> leader) {
+        if (inFlight.remove(key, leader)) {
+            leader.complete(null);
+        }
+    }
+
+    public RouteStats stats(String routeId) {
+        return routeStats.computeIfAbsent(routeId, key -> new RouteStats());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("totalSize", totalSize);
+        }
+        stats.put("inFlight", inFlight.size());
+        Map<String, Map<String, Long>> routes = new LinkedHashMap<>();
+        routeStats.forEach((routeId, route) -> routes.put(routeId, route.toMap()));
+        stats.put("routes", routes);
+        return stats;
+    }
+
+    public static class RouteStats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder stores = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        public void hit() {
+            hits.increment();
+        }
+
+        public void miss() {
+            misses.increment();
+        }
+
+        public void coalesced() {
+            coalesced.increment();
+        }
+
+        public void stored() {
+            stores.increment();
+        }
+
+        Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("hits", hits.sum());
+            map.put("misses", misses.sum());
+            map.put("coalesced", coalesced.sum());
+            map.put("stores", stores.sum());
+            map.put("evictions", evictions.sum());
+            return map;
+        }
+    }
+}
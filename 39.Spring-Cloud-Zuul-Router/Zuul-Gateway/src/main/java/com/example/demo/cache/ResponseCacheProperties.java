@@ -0,0 +1,87 @@
+package com.example.demo.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关响应缓存配置
+ *
+ * @author MrBird
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // 最多缓存的响应数
+    private int maxEntries = 1000;
+    // 单个响应体超过该大小（字节）不缓存
+    private int maxBodySize = 64 * 1024;
+    // 所有缓存响应体的总大小上限（字节）
+    private long maxTotalSize = 32 * 1024 * 1024;
+    // 是否按上游响应的 Cache-Control: max-age 缓存没有单独配置的路由
+    private boolean honorCacheControl = true;
+    // 合并的请求等待首个请求返回的最长时间（毫秒），超时后自行请求上游
+    private long coalesceTimeout = 5000;
+    // 路由id -> 缓存时间（毫秒），上游响应带有 Cache-Control 时以响应头为准
+    private Map<String, Long> routes = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public long getMaxTotalSize() {
+        return maxTotalSize;
+    }
+
+    public void setMaxTotalSize(long maxTotalSize) {
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    public boolean isHonorCacheControl() {
+        return honorCacheControl;
+    }
+
+    public void setHonorCacheControl(boolean honorCacheControl) {
+        this.honorCacheControl = honorCacheControl;
+    }
+
+    public long getCoalesceTimeout() {
+        return coalesceTimeout;
+    }
+
+    public void setCoalesceTimeout(long coalesceTimeout) {
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
+    public Map<String, Long> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Long> routes) {
+        this.routes = routes;
+    }
+}
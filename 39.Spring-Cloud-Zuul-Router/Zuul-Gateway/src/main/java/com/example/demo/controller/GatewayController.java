@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.accesslog.AccessLogWriter;
+import com.example.demo.cache.ResponseCache;
+import com.example.demo.ratelimit.RateLimitBenchmark;
+import com.example.demo.ratelimit.RateLimitStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * @author MrBird
+ */
+@RestController
+@RequestMapping("gateway")
+public class GatewayController {
+
+    @Autowired
+    private ResponseCache responseCache;
+    @Autowired
+    private RateLimitStats rateLimitStats;
+    @Autowired
+    private RateLimitBenchmark rateLimitBenchmark;
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    // 各路由的缓存命中、合并和淘汰次数
+    @GetMapping("cache/stats")
+    public Map<String, Object> cacheStats() {
+        return responseCache.stats();
+    }
+
+    // 各路由放行和被限流的请求数
+    @GetMapping("rate-limit/stats")
+    public Map<String, Map<String, Long>> rateLimitStats() {
+        return rateLimitStats.snapshot();
+    }
+
+    // 只测量限流后端，不经过过滤器
+    @GetMapping("rate-limit/benchmark")
+    public Map<String, Object> rateLimitBenchmark(@RequestParam(defaultValue = "8") int threads,
+                                                  @RequestParam(defaultValue = "1000000") int iterations,
+                                                  @RequestParam(defaultValue = "10000") int clients) throws InterruptedException {
+        return rateLimitBenchmark.run(threads, iterations, clients);
+    }
+
+    // 访问日志的写出情况和各路由的延迟分布
+    @GetMapping("access-log/stats")
+    public Map<String, Object> accessLogStats() {
+        return accessLogWriter.stats();
+    }
+}
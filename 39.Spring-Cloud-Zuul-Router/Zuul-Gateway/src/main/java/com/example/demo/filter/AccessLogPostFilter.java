@@ -0,0 +1,67 @@
+package com.example.demo.filter;
+
+import com.example.demo.accesslog.AccessLogEvent;
+import com.example.demo.accesslog.AccessLogProperties;
+import com.example.demo.accesslog.AccessLogWriter;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录请求经过网关的耗时（从PreSendForwardFilter开始到返回响应之前）和状态码，
+ * 所有请求计入延迟直方图，按路由采样后写入访问日志
+ *
+ * @author MrBird
+ */
+@Component
+public class AccessLogPostFilter extends ZuulFilter {
+
+    private final AccessLogWriter accessLogWriter;
+    private final AccessLogProperties properties;
+
+    public AccessLogPostFilter(AccessLogWriter accessLogWriter, AccessLogProperties properties) {
+        this.accessLogWriter = accessLogWriter;
+        this.properties = properties;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().containsKey(PreSendForwardFilter.START_TIME);
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - (long) ctx.get(PreSendForwardFilter.START_TIME));
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+        accessLogWriter.record(routeId == null ? "none" : routeId, latencyMicros);
+
+        double sampleRate = properties.sampleRate(routeId);
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        HttpServletRequest request = ctx.getRequest();
+        int status = ctx.getResponseStatusCode();
+        if (ctx.getThrowable() != null && status < 400) {
+            status = 500;
+        }
+        accessLogWriter.append(new AccessLogEvent(System.currentTimeMillis(), routeId, request.getMethod(),
+                request.getRequestURI(), request.getRemoteAddr(), status, latencyMicros));
+        return null;
+    }
+}
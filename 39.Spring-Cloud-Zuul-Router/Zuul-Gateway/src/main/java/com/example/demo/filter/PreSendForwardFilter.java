@@ -1,17 +1,23 @@
 package com.example.demo.filter;
 
+import com.example.demo.accesslog.AccessLogProperties;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import javax.servlet.http.HttpServletRequest;
-
+/**
+ * 记录请求进入网关的时间，访问日志由 AccessLogPostFilter 在响应返回前采样后异步写出
+ */
 @Component
 public class PreSendForwardFilter extends ZuulFilter {
 
-    private Logger log = LoggerFactory.getLogger(this.getClass());
+    static final String START_TIME = "accessLogStartTime";
+
+    private final AccessLogProperties properties;
+
+    public PreSendForwardFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
 
     @Override
     public String filterType() {
@@ -25,17 +31,12 @@ public class PreSendForwardFilter extends ZuulFilter {
 
     @Override
     public boolean shouldFilter() {
-        return true;
+        return properties.isEnabled();
     }
 
     @Override
     public Object run() {
-        RequestContext requestContext = RequestContext.getCurrentContext();
-        HttpServletRequest request = requestContext.getRequest();
-        String host = request.getRemoteHost();
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        log.info("请求URI：{}，HTTP Method：{}，请求IP：{}", uri, method, host);
+        RequestContext.getCurrentContext().set(START_TIME, System.nanoTime());
         return null;
     }
 }
@@ -0,0 +1,113 @@
+package com.example.demo.filter;
+
+import com.example.demo.ratelimit.RateLimitBackend;
+import com.example.demo.ratelimit.RateLimitProperties;
+import com.example.demo.ratelimit.RateLimitStats;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按路由和客户端IP限流，超出限额时返回429和 Retry-After 响应头，不再转发。
+ * 在PreDecorationFilter之后、响应缓存之前执行
+ *
+ * @author MrBird
+ */
+@Component
+public class RateLimitFilter extends ZuulFilter {
+
+    private final RateLimitBackend backend;
+    private final RateLimitProperties properties;
+    private final RateLimitStats stats;
+
+    public RateLimitFilter(RateLimitBackend backend, RateLimitProperties properties, RateLimitStats stats) {
+        this.backend = backend;
+        this.properties = properties;
+        this.stats = stats;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return properties.isEnabled() && RequestContext.getCurrentContext().get(FilterConstants.PROXY_KEY) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+
+        // 先检查IP限额，避免单个客户端耗尽整个路由的令牌
+        RateLimitProperties.Limit ipLimit = properties.getPerIp();
+        if (ipLimit != null) {
+            long wait = backend.tryAcquire(routeId + ":" + clientIp(ctx.getRequest()), ipLimit);
+            if (wait > 0) {
+                stats.rejectedByIp(routeId);
+                reject(ctx, wait);
+                return null;
+            }
+        }
+        RateLimitProperties.Limit routeLimit = properties.routeLimit(routeId);
+        if (routeLimit != null) {
+            long wait = backend.tryAcquire(routeId, routeLimit);
+            if (wait > 0) {
+                stats.rejectedByRoute(routeId);
+                reject(ctx, wait);
+                return null;
+            }
+        }
+        stats.allowed(routeId);
+        return null;
+    }
+
+    private void reject(RequestContext ctx, long waitNanos) {
+        ctx.setSendZuulResponse(false);
+        ctx.setResponseStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Retry-After 单位为秒，向上取整
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ctx.addZuulResponseHeader("Retry-After", String.valueOf(seconds));
+        ctx.addZuulResponseHeader("Content-Type", "text/plain;charset=UTF-8");
+        ctx.setResponseBody("请求过于频繁，请稍后再试");
+    }
+
+    /**
+     * 客户端可以随意伪造 X-Forwarded-For，只有直接来自可信代理的请求才使用它：
+     * 从右往左跳过可信代理，取第一个不可信的地址
+     */
+    String clientIp(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        List<String> trusted = properties.getTrustedProxies();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (!trusted.contains(remote) || forwarded == null || forwarded.isEmpty()) {
+            return remote;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remote;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trusted.contains(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+}
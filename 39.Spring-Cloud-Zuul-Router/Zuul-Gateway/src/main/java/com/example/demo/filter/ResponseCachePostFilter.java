@@ -0,0 +1,194 @@
+package com.example.demo.filter;
+
+import com.example.demo.cache.CachedResponse;
+import com.example.demo.cache.ResponseCache;
+import com.example.demo.cache.ResponseCacheProperties;
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 在SendResponseFilter之前读取上游响应，可缓存时保存，并通知合并等待的请求
+ *
+ * @author MrBird
+ */
+@Component
+public class ResponseCachePostFilter extends ZuulFilter {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCachePostFilter(ResponseCache responseCache, ResponseCacheProperties properties) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().containsKey(ResponseCachePreFilter.CACHE_LEADER);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String baseKey = (String) ctx.get(ResponseCachePreFilter.CACHE_BASE_KEY);
+        String key = (String) ctx.get(ResponseCachePreFilter.CACHE_KEY);
+        CompletableFuture<CachedResponse> leader = (CompletableFuture<CachedResponse>) ctx.get(ResponseCachePreFilter.CACHE_LEADER);
+        CachedResponse response = null;
+        try {
+            response = toCachedResponse(ctx);
+            if (response != null) {
+                responseCache.vary(baseKey, response.getVary());
+                String storeKey = ResponseCachePreFilter.varyKey(baseKey, response.getVary(), ctx.getRequest());
+                if (responseCache.put(storeKey, response)) {
+                    responseCache.stats((String) ctx.get(FilterConstants.PROXY_KEY)).stored();
+                }
+                if (!storeKey.equals(key)) {
+                    // 登记时还不知道响应按哪些请求头区分，等待的请求不一定能用这个响应，让它们自行请求上游
+                    response = null;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取上游响应失败: " + e.getMessage());
+        } finally {
+            responseCache.complete(key, leader, response);
+        }
+        return null;
+    }
+
+    private CachedResponse toCachedResponse(RequestContext ctx) throws IOException {
+        if (ctx.getThrowable() != null || ctx.getResponseStatusCode() != 200 || ctx.getResponseDataStream() == null) {
+            return null;
+        }
+        long ttl = ttl(ctx, (String) ctx.get(FilterConstants.PROXY_KEY));
+        if (ttl <= 0) {
+            return null;
+        }
+        boolean shared = hasHeaderValue(ctx, "cache-control", "public");
+        if (Boolean.TRUE.equals(ctx.get(ResponseCachePreFilter.CACHE_CREDENTIALED)) && !shared) {
+            return null;
+        }
+        List<String> vary = vary(ctx);
+        if (vary == null) {
+            return null;
+        }
+        // 最多读取 maxBodySize + 1 个字节，超过限制的响应不缓存，已读取的部分拼回原始流继续返回给客户端
+        InputStream stream = ctx.getResponseDataStream();
+        byte[] buffer = new byte[properties.getMaxBodySize() + 1];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = stream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        if (length == buffer.length) {
+            ctx.setResponseDataStream(new SequenceInputStream(new ByteArrayInputStream(buffer), stream));
+            return null;
+        }
+        byte[] body = new byte[length];
+        System.arraycopy(buffer, 0, body, 0, length);
+        StreamUtils.drain(stream);
+        ctx.setResponseDataStream(new ByteArrayInputStream(body));
+        return new CachedResponse(200, new ArrayList<>(ctx.getZuulResponseHeaders()), body,
+                ctx.getResponseGZipped(), shared, vary, System.currentTimeMillis() + ttl);
+    }
+
+    /**
+     * 上游响应 Vary 中的请求头，按名称排序；Vary: * 时返回null，表示不缓存
+     */
+    private List<String> vary(RequestContext ctx) {
+        TreeSet<String> names = new TreeSet<>();
+        List<Pair<String, String>> headers = ctx.getOriginResponseHeaders();
+        if (headers != null) {
+            for (Pair<String, String> header : headers) {
+                if (!"vary".equalsIgnoreCase(header.first())) {
+                    continue;
+                }
+                for (String name : header.second().split(",")) {
+                    name = name.trim().toLowerCase(Locale.ENGLISH);
+                    if ("*".equals(name)) {
+                        return null;
+                    }
+                    if (!name.isEmpty()) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    private boolean hasHeaderValue(RequestContext ctx, String name, String value) {
+        List<Pair<String, String>> headers = ctx.getOriginResponseHeaders();
+        if (headers != null) {
+            for (Pair<String, String> header : headers) {
+                if (name.equalsIgnoreCase(header.first())
+                        && header.second().toLowerCase(Locale.ENGLISH).contains(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 上游响应的 Cache-Control 优先：no-store、no-cache、private 或带有 Set-Cookie 时不缓存，
+     * 有 max-age 时按 max-age 缓存；否则使用路由配置的缓存时间
+     */
+    private long ttl(RequestContext ctx, String routeId) {
+        List<Pair<String, String>> headers = ctx.getOriginResponseHeaders();
+        if (headers != null) {
+            for (Pair<String, String> header : headers) {
+                String name = header.first().toLowerCase(Locale.ENGLISH);
+                if ("set-cookie".equals(name)) {
+                    return 0;
+                }
+                if (!"cache-control".equals(name)) {
+                    continue;
+                }
+                String value = header.second().toLowerCase(Locale.ENGLISH);
+                if (value.contains("no-store") || value.contains("no-cache") || value.contains("private")) {
+                    return 0;
+                }
+                int index = value.indexOf("max-age=");
+                if (index >= 0 && properties.isHonorCacheControl()) {
+                    String seconds = value.substring(index + 8).split("[,\\s]")[0];
+                    try {
+                        return Long.parseLong(seconds) * 1000;
+                    } catch (NumberFormatException ignore) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        Long ttl = properties.getRoutes().get(routeId);
+        return ttl == null ? 0 : ttl;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.filter;
+
+import com.example.demo.cache.CachedResponse;
+import com.example.demo.cache.ResponseCache;
+import com.example.demo.cache.ResponseCacheProperties;
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * GET请求命中缓存时直接返回缓存的响应，不再转发到上游；
+ * 未命中时，相同的并发请求只转发第一个，其余请求等待它的响应。
+ * 带有 Authorization 或 Cookie 的请求不参与合并，只使用和保存 Cache-Control: public 的响应。
+ * 在PreDecorationFilter之后执行，此时已经确定了路由；被限流的请求不经过这里
+ *
+ * @author MrBird
+ */
+@Component
+public class ResponseCachePreFilter extends ZuulFilter {
+
+    static final String CACHE_BASE_KEY = "responseCacheBaseKey";
+    static final String CACHE_KEY = "responseCacheKey";
+    static final String CACHE_LEADER = "responseCacheLeader";
+    static final String CACHE_CREDENTIALED = "responseCacheCredentialed";
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCachePreFilter(ResponseCache responseCache, ResponseCacheProperties properties) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 2;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+        // 只缓存转发到上游服务的GET请求，forward路由不经过这里
+        return properties.isEnabled()
+                && ctx.sendZuulResponse()
+                && "GET".equals(ctx.getRequest().getMethod())
+                && routeId != null
+                && (ctx.get(FilterConstants.SERVICE_ID_KEY) != null || ctx.getRouteHost() != null)
+                && (properties.isHonorCacheControl() || properties.getRoutes().containsKey(routeId));
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        HttpServletRequest request = ctx.getRequest();
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        String baseKey = ResponseCache.key(routeId, uri);
+        String key = varyKey(baseKey, responseCache.vary(baseKey), request);
+        boolean credentialed = request.getHeader("Authorization") != null || request.getHeader("Cookie") != null;
+        ResponseCache.RouteStats stats = responseCache.stats(routeId);
+
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && (!credentialed || cached.isShared())) {
+            stats.hit();
+            respond(ctx, cached);
+            return null;
+        }
+        CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+        // 带凭证的请求可能拿到用户私有的响应，不登记也不等待其他请求，自行转发
+        CompletableFuture<CachedResponse> existing = credentialed ? null : responseCache.register(key, leader);
+        if (existing == null) {
+            lead(ctx, baseKey, key, leader, credentialed);
+            stats.miss();
+            return null;
+        }
+        try {
+            cached = existing.get(properties.getCoalesceTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            // 首个请求的post过滤器可能没有执行（前面的post过滤器抛出异常），登记一直不会被移除。
+            // 移除超时的登记并通知其他等待的请求，当前请求改为负责转发，之后的请求可以重新合并和缓存
+            responseCache.abandon(key, existing);
+            if (responseCache.register(key, leader) == null) {
+                lead(ctx, baseKey, key, leader, false);
+            }
+        } catch (Exception ignore) {
+            // 首个请求失败，自行请求上游
+        }
+        if (cached != null) {
+            stats.coalesced();
+            respond(ctx, cached);
+        } else {
+            stats.miss();
+        }
+        return null;
+    }
+
+    // 当前请求负责转发，由ResponseCachePostFilter保存响应并通知等待的请求
+    private void lead(RequestContext ctx, String baseKey, String key,
+                      CompletableFuture<CachedResponse> leader, boolean credentialed) {
+        ctx.set(CACHE_BASE_KEY, baseKey);
+        ctx.set(CACHE_KEY, key);
+        ctx.set(CACHE_LEADER, leader);
+        ctx.set(CACHE_CREDENTIALED, credentialed);
+    }
+
+    /**
+     * 在 路由id + 请求URI 后面拼上 Vary 请求头的值
+     */
+    static String varyKey(String baseKey, List<String> vary, HttpServletRequest request) {
+        if (vary.isEmpty()) {
+            return baseKey;
+        }
+        StringBuilder key = new StringBuilder(baseKey);
+        for (String name : vary) {
+            key.append('\n').append(name).append('=');
+            key.append(String.join(",", Collections.list(request.getHeaders(name))));
+        }
+        return key.toString();
+    }
+
+    private void respond(RequestContext ctx, CachedResponse cached) {
+        ctx.setSendZuulResponse(false);
+        ctx.setResponseStatusCode(cached.getStatus());
+        for (Pair<String, String> header : cached.getHeaders()) {
+            ctx.addZuulResponseHeader(header.first(), header.second());
+        }
+        ctx.setResponseGZipped(cached.isGzipped());
+        ctx.setResponseDataStream(new ByteArrayInputStream(cached.getBody()));
+        ctx.addZuulResponseHeader("X-Gateway-Cache", "HIT");
+    }
+}
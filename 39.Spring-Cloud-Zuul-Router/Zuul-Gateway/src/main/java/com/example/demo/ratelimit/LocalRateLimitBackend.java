@@ -0,0 +1,55 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单节点令牌桶，按GCRA算法实现：每个桶只保存一个"理论到达时间"，
+ * 取令牌是对这个long值的一次CAS，不加锁。桶分布在ConcurrentHashMap的分段上，
+ * 不同路由和IP的请求互不竞争
+ *
+ * @author MrBird
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long interval = limit.intervalNanos();
+        long tolerance = limit.toleranceNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            // 桶是满的（理论到达时间已经过去）时从当前时间算起
+            long base = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 定期清理已经补满的桶，避免大量客户端IP占用内存。补满的桶与新建的桶状态相同，删除不影响限流结果
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() == Long.MIN_VALUE || bucket.get() - now < 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
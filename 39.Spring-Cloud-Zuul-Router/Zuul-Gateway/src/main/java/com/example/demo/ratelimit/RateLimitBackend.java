@@ -0,0 +1,16 @@
+package com.example.demo.ratelimit;
+
+/**
+ * 令牌桶的存储
+ *
+ * @author MrBird
+ */
+public interface RateLimitBackend {
+
+    /**
+     * 尝试从key对应的令牌桶中取一个令牌
+     *
+     * @return 0表示取到令牌；大于0表示桶已空，值为需要等待的纳秒数
+     */
+    long tryAcquire(String key, RateLimitProperties.Limit limit);
+}
@@ -0,0 +1,77 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 测量限流后端（RateLimitBackend）的开销：多个线程模拟请求，每个请求检查一次IP桶和一次路由桶，
+ * 限额设置得足够大，保证测量的是放行路径的耗时而不是被拒绝的比例。
+ * 不包括 RateLimitFilter 中解析客户端IP、拼接key和统计的耗时
+ *
+ * @author MrBird
+ */
+@Component
+public class RateLimitBenchmark {
+
+    private final RateLimitBackend backend;
+
+    public RateLimitBenchmark(RateLimitBackend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * @param threads    并发线程数
+     * @param iterations 每个线程的请求数
+     * @param clients    模拟的客户端IP数
+     */
+    public Map<String, Object> run(int threads, int iterations, int clients) throws InterruptedException {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1_000_000_000, Integer.MAX_VALUE / 2);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder rejected = new LongAdder();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        String ip = "10.0." + ((thread * iterations + i) % clients) / 256 + "." + (i % 256);
+                        if (backend.tryAcquire("benchmark:" + ip, limit) > 0
+                                || backend.tryAcquire("benchmark", limit) > 0) {
+                            rejected.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        long requests = (long) threads * iterations;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backend", backend.getClass().getSimpleName());
+        result.put("threads", threads);
+        result.put("requests", requests);
+        result.put("rejected", rejected.sum());
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        // 每个请求在单个线程上的平均耗时
+        result.put("nanosPerRequest", requests == 0 ? 0 : elapsed * threads / requests);
+        result.put("requestsPerSecond", elapsed == 0 ? 0 : requests * 1_000_000_000L / elapsed);
+        return result;
+    }
+}
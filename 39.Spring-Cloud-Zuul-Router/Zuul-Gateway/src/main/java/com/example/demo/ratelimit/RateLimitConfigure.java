@@ -0,0 +1,36 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * RedisAutoConfiguration 在application.yml中被排除，只有使用redis限流时才导入，
+ * 避免使用local限流时Redis健康检查把 /health 置为DOWN
+ *
+ * @author MrBird
+ */
+@Configuration
+public class RateLimitConfigure {
+
+    @Configuration
+    @ConditionalOnProperty(name = "gateway.rate-limit.backend", havingValue = "redis")
+    @Import(RedisAutoConfiguration.class)
+    static class RedisBackendConfigure {
+
+        @Bean
+        public RateLimitBackend redisRateLimitBackend(StringRedisTemplate redisTemplate) {
+            return new RedisRateLimitBackend(redisTemplate);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitBackend.class)
+    public RateLimitBackend localRateLimitBackend() {
+        return new LocalRateLimitBackend();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关限流配置
+ *
+ * @author MrBird
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // local：单个网关节点内限流；redis：多个网关节点共享限流状态
+    private String backend = "local";
+    // 没有单独配置的路由使用的限额，为空时不限制
+    private Limit defaultRoute;
+    // 路由id -> 限额
+    private Map<String, Limit> routes = new HashMap<>();
+    // 每个客户端IP在每个路由上的限额，为空时不限制
+    private Limit perIp;
+    // 可信的反向代理IP，只有来自这些地址的请求才使用 X-Forwarded-For 判断客户端IP
+    private List<String> trustedProxies = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public Limit getDefaultRoute() {
+        return defaultRoute;
+    }
+
+    public void setDefaultRoute(Limit defaultRoute) {
+        this.defaultRoute = defaultRoute;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public Limit getPerIp() {
+        return perIp;
+    }
+
+    public void setPerIp(Limit perIp) {
+        this.perIp = perIp;
+    }
+
+    public List<String> getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Limit routeLimit(String routeId) {
+        Limit limit = routes.get(routeId);
+        return limit != null ? limit : defaultRoute;
+    }
+
+    public static class Limit {
+        // 每秒补充的令牌数
+        private double permitsPerSecond;
+        // 桶容量，即允许的突发请求数
+        private int burst = 1;
+
+        public Limit() {
+        }
+
+        public Limit(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+
+        // 补充一个令牌的间隔
+        public long intervalNanos() {
+            return (long) (1_000_000_000L / permitsPerSecond);
+        }
+
+        // 桶满时可以连续通过的请求在时间上的提前量
+        public long toleranceNanos() {
+            return intervalNanos() * (Math.max(burst, 1) - 1);
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public void setPermitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 各路由放行和拒绝的请求数，LongAdder在高并发下按线程分散计数，避免争用同一个计数器
+ *
+ * @author MrBird
+ */
+@Component
+public class RateLimitStats {
+
+    private final ConcurrentMap<String, LongAdder[]> routes = new ConcurrentHashMap<>();
+
+    public void allowed(String routeId) {
+        counters(routeId)[0].increment();
+    }
+
+    public void rejectedByRoute(String routeId) {
+        counters(routeId)[1].increment();
+    }
+
+    public void rejectedByIp(String routeId) {
+        counters(routeId)[2].increment();
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> snapshot = new LinkedHashMap<>();
+        routes.forEach((routeId, counters) -> {
+            Map<String, Long> route = new LinkedHashMap<>();
+            route.put("allowed", counters[0].sum());
+            route.put("rejectedByRoute", counters[1].sum());
+            route.put("rejectedByIp", counters[2].sum());
+            snapshot.put(routeId, route);
+        });
+        return snapshot;
+    }
+
+    private LongAdder[] counters(String routeId) {
+        LongAdder[] counters = routes.get(routeId);
+        if (counters == null) {
+            counters = routes.computeIfAbsent(routeId,
+                    key -> new LongAdder[]{new LongAdder(), new LongAdder(), new LongAdder()});
+        }
+        return counters;
+    }
+}
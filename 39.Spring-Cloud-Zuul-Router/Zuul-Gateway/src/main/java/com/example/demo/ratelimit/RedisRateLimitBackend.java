@@ -0,0 +1,73 @@
+package com.example.demo.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多个网关节点共享的令牌桶，与 LocalRateLimitBackend 相同的GCRA算法，
+ * 在Redis中用Lua脚本原子地完成判断和更新，时间取Redis服务器时间，避免各节点时钟不一致。
+ * Redis不可用时放行请求，不因限流组件故障影响业务；出错后的一段时间内不再访问Redis，只记录一次日志
+ *
+ * @author MrBird
+ */
+public class RedisRateLimitBackend implements RateLimitBackend {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+    // Redis出错后直接放行、不再访问Redis的时间
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // 参数单位为微秒，返回需要等待的微秒数，0表示放行
+    private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>(
+            "redis.replicate_commands()\n" +
+                    "local interval = tonumber(ARGV[1])\n" +
+                    "local tolerance = tonumber(ARGV[2])\n" +
+                    "local time = redis.call('TIME')\n" +
+                    "local now = tonumber(time[1]) * 1000000 + tonumber(time[2])\n" +
+                    "local tat = tonumber(redis.call('GET', KEYS[1]) or now)\n" +
+                    "if tat < now then tat = now end\n" +
+                    "local wait = tat - tolerance - now\n" +
+                    "if wait > 0 then return wait end\n" +
+                    "local next = tat + interval\n" +
+                    "redis.call('SET', KEYS[1], next, 'PX', math.ceil((next - now) / 1000) + 1000)\n" +
+                    "return 0", Long.class);
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final StringRedisTemplate redisTemplate;
+    // 恢复访问Redis的时间（System.nanoTime），0表示Redis正常
+    private final AtomicLong openUntil = new AtomicLong();
+
+    public RedisRateLimitBackend(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long until = openUntil.get();
+        if (until != 0 && System.nanoTime() - until < 0) {
+            return 0;
+        }
+        try {
+            Long wait = redisTemplate.execute(SCRIPT, Collections.singletonList(KEY_PREFIX + key),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(limit.intervalNanos())),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMicros(limit.toleranceNanos())));
+            if (until != 0 && openUntil.compareAndSet(until, 0)) {
+                log.info("Redis已恢复，重新开始限流");
+            }
+            return wait == null ? 0 : TimeUnit.MICROSECONDS.toNanos(wait);
+        } catch (Exception e) {
+            // 只有把状态切换为断开的线程记录日志，其余请求直接放行
+            if (openUntil.compareAndSet(until, System.nanoTime() + OPEN_NANOS)) {
+                log.warn("限流状态读取失败，" + TimeUnit.NANOSECONDS.toSeconds(OPEN_NANOS) + "秒内放行所有请求: " + e.getMessage());
+            }
+            return 0;
+        }
+    }
+}
@@ -1,19 +1,82 @@
 package cc.mrbird.consumer.controller;
 
 import cc.mrbird.common.api.HelloService;
+import cc.mrbird.consumer.service.AsyncHelloService;
+import cc.mrbird.common.serialize.CompressedSerialization;
+import cc.mrbird.consumer.service.HelloBenchmark;
+import cc.mrbird.consumer.service.PayloadBenchmark;
+import cc.mrbird.consumer.service.SerializationBenchmark;
 import com.alibaba.dubbo.config.annotation.Reference;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class HelloController {
 
     @Reference
     private HelloService helloService;
+    @Autowired
+    private AsyncHelloService asyncHelloService;
+    @Autowired
+    private HelloBenchmark helloBenchmark;
+    @Autowired
+    private SerializationBenchmark serializationBenchmark;
+    @Autowired
+    private PayloadBenchmark payloadBenchmark;
 
     @GetMapping("/hello/{message}")
     public String hello(@PathVariable String message) {
         return this.helloService.hello(message);
     }
+
+    // 等待RPC返回期间释放servlet线程
+    @GetMapping("/async/hello/{message}")
+    public CompletableFuture<String> asyncHello(@PathVariable String message) {
+        return this.asyncHelloService.hello(message);
+    }
+
+    @GetMapping("/deferred/hello/{message}")
+    public DeferredResult<String> deferredHello(@PathVariable String message) {
+        DeferredResult<String> result = new DeferredResult<>();
+        this.asyncHelloService.hello(message).whenComplete((value, e) -> {
+            if (e != null) {
+                result.setErrorResult(e);
+            } else {
+                result.setResult(value);
+            }
+        });
+        return result;
+    }
+
+    @GetMapping("/testHello")
+    public Map<String, Object> testHello(@RequestParam(defaultValue = "500") int calls,
+                                         @RequestParam(defaultValue = "true") boolean async) throws InterruptedException {
+        return this.helloBenchmark.run(calls, async);
+    }
+
+    @GetMapping("/testSerialization")
+    public Map<String, Object> testSerialization(@RequestParam(defaultValue = "100") int items,
+                                                 @RequestParam(defaultValue = "1000") int iterations) throws IOException {
+        return this.serializationBenchmark.run(items, iterations);
+    }
+
+    @GetMapping("/testPayload")
+    public Map<String, Object> testPayload(@RequestParam(defaultValue = "100") int items,
+                                           @RequestParam(defaultValue = "500") int calls) {
+        return this.payloadBenchmark.run(items, calls);
+    }
+
+    @GetMapping("/serialization/stats")
+    public Map<String, Object> serializationStats() {
+        return CompressedSerialization.stats();
+    }
+
 }
@@ -0,0 +1,67 @@
+package cc.mrbird.consumer.service;
+
+import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.api.dto.HelloPayload;
+import cc.mrbird.common.serialize.CompressedSerialization;
+import com.alibaba.dubbo.config.annotation.Reference;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 通过真实的RPC调用 HelloService#echo 发送和接收较大的 HelloPayload，统计调用延迟。
+ * 提供方使用 compressed 序列化时，同时统计每次调用实际发送和接收的字节数
+ *
+ * @author MrBird
+ */
+@Component
+public class PayloadBenchmark {
+
+    @Reference
+    private HelloService helloService;
+
+    /**
+     * @param items HelloPayload 中的条目数
+     * @param calls 调用次数，另外先预热相同次数
+     */
+    public Map<String, Object> run(int items, int calls) {
+        HelloPayload payload = HelloPayload.of("benchmark", items);
+        for (int i = 0; i < calls; i++) {
+            helloService.echo(payload);
+        }
+        Map<String, Object> before = CompressedSerialization.stats();
+        long[] latencies = new long[calls];
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            helloService.echo(payload);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Map<String, Object> after = CompressedSerialization.stats();
+
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", items);
+        result.put("calls", calls);
+        result.put("p50Ms", percentile(latencies, 0.5));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("maxMs", latencies[latencies.length - 1] / 1_000_000.0);
+        long messagesOut = delta(before, after, "writtenMessages");
+        if (messagesOut > 0) {
+            result.put("requestRawBytes", delta(before, after, "rawBytesOut") / messagesOut);
+            result.put("requestWireBytes", delta(before, after, "wireBytesOut") / messagesOut);
+            result.put("responseWireBytes", delta(before, after, "wireBytesIn") / Math.max(1, delta(before, after, "readMessages")));
+        }
+        return result;
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String key) {
+        return (Long) after.get(key) - (Long) before.get(key);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+}
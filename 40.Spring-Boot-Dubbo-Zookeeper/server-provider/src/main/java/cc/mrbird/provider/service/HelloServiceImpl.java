@@ -1,14 +1,36 @@
 package cc.mrbird.provider.service;
 
 import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.api.dto.HelloPayload;
 import com.alibaba.dubbo.config.annotation.Service;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Service(interfaceClass = HelloService.class)
 @Component
 public class HelloServiceImpl implements HelloService {
+
+    // 模拟响应慢的服务提供方，单位毫秒
+    @Value("${hello.delay:0}")
+    private long delay;
+
     @Override
     public String hello(String message) {
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         return "hello," + message;
     }
+
+    @Override
+    public HelloPayload echo(HelloPayload payload) {
+        payload.setMessage("hello," + payload.getMessage());
+        return payload;
+    }
 }
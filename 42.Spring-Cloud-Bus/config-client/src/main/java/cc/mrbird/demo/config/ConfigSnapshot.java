@@ -0,0 +1,43 @@
+package cc.mrbird.demo.config;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 某一时刻的配置快照，创建后不可修改，读取时不需要加锁
+ *
+ * @author MrBird
+ */
+public final class ConfigSnapshot {
+
+    static final String MESSAGE = "message";
+
+    private final String message;
+
+    private ConfigSnapshot(String message) {
+        this.message = message;
+    }
+
+    public static ConfigSnapshot from(Environment environment) {
+        return new ConfigSnapshot(environment.getRequiredProperty(MESSAGE));
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 与之前的快照比较，返回值发生变化的配置项及新值
+     */
+    public Map<String, Object> diff(ConfigSnapshot previous) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (!Objects.equals(message, previous.message)) {
+            changes.put(MESSAGE, message);
+        }
+        return Collections.unmodifiableMap(changes);
+    }
+}
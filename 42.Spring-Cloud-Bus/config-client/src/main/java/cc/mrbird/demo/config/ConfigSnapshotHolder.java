@@ -0,0 +1,58 @@
+package cc.mrbird.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 持有当前的配置快照，替代 @RefreshScope。
+ * 配置刷新（/bus/refresh 或 /refresh）后收到 EnvironmentChangeEvent，重新生成快照并原子替换，
+ * 不需要销毁和重建bean，读取配置也不再经过作用域代理
+ *
+ * @author MrBird
+ */
+@Component
+public class ConfigSnapshotHolder {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final Environment environment;
+    private final ApplicationEventPublisher publisher;
+    private final AtomicReference<ConfigSnapshot> snapshot;
+
+    public ConfigSnapshotHolder(Environment environment, ApplicationEventPublisher publisher) {
+        this.environment = environment;
+        this.publisher = publisher;
+        this.snapshot = new AtomicReference<>(ConfigSnapshot.from(environment));
+    }
+
+    public ConfigSnapshot get() {
+        return snapshot.get();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        reload();
+    }
+
+    /**
+     * 按当前的Environment重新生成快照，有变化时替换并发布只包含变化项的事件
+     */
+    public Map<String, Object> reload() {
+        ConfigSnapshot current = ConfigSnapshot.from(environment);
+        ConfigSnapshot previous = snapshot.getAndSet(current);
+        Map<String, Object> changes = current.diff(previous);
+        if (!changes.isEmpty()) {
+            log.info("配置已更新：{}", changes);
+            publisher.publishEvent(new ConfigSnapshotChangeEvent(this, previous, current, changes));
+        }
+        return changes;
+    }
+}
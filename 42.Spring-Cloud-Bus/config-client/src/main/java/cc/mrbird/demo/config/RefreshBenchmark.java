@@ -0,0 +1,115 @@
+package cc.mrbird.demo.config;
+
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 对比 @RefreshScope 和 ConfigSnapshotHolder：
+ * 1. 单线程读取配置的耗时；
+ * 2. 多个线程持续读取配置的同时反复刷新，读取线程的最大停顿和刷新本身的耗时。
+ * 刷新时只刷新 RefreshScopedConfig 一个bean，不影响其他refresh作用域的bean
+ *
+ * @author MrBird
+ */
+@Component
+public class RefreshBenchmark {
+
+    private static final String REFRESH_SCOPED_BEAN = "refreshScopedConfig";
+
+    private final RefreshScope refreshScope;
+    private final RefreshScopedConfig refreshScopedConfig;
+    private final ConfigSnapshotHolder snapshotHolder;
+
+    public RefreshBenchmark(RefreshScope refreshScope, RefreshScopedConfig refreshScopedConfig,
+                            ConfigSnapshotHolder snapshotHolder) {
+        this.refreshScope = refreshScope;
+        this.refreshScopedConfig = refreshScopedConfig;
+        this.snapshotHolder = snapshotHolder;
+    }
+
+    /**
+     * @param reads     单线程读取次数，另外先预热相同次数
+     * @param readers   刷新期间并发读取的线程数
+     * @param refreshes 刷新次数
+     */
+    public Map<String, Object> run(int reads, int readers, int refreshes) throws InterruptedException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("reads", reads);
+        result.put("readers", readers);
+        result.put("refreshes", refreshes);
+        result.put("refreshScope", measure(refreshScopedConfig::getMessage,
+                () -> refreshScope.refresh(REFRESH_SCOPED_BEAN), reads, readers, refreshes));
+        result.put("snapshotHolder", measure(() -> snapshotHolder.get().getMessage(),
+                snapshotHolder::reload, reads, readers, refreshes));
+        return result;
+    }
+
+    private Map<String, Object> measure(Supplier<String> read, Runnable refresh, int reads, int readers,
+                                        int refreshes) throws InterruptedException {
+        int blackhole = 0;
+        for (int i = 0; i < reads; i++) {
+            blackhole += read.get().length();
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            blackhole += read.get().length();
+        }
+        long readNanos = System.nanoTime() - begin;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] maxPauses = new long[readers];
+        LongAdder concurrentReads = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        CountDownLatch started = new CountDownLatch(readers);
+        CountDownLatch stopped = new CountDownLatch(readers);
+        for (int i = 0; i < readers; i++) {
+            int reader = i;
+            executor.execute(() -> {
+                started.countDown();
+                long max = 0;
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    read.get();
+                    max = Math.max(max, System.nanoTime() - start);
+                    concurrentReads.increment();
+                }
+                maxPauses[reader] = max;
+                stopped.countDown();
+            });
+        }
+        started.await();
+        long[] refreshNanos = new long[refreshes];
+        for (int i = 0; i < refreshes; i++) {
+            long start = System.nanoTime();
+            refresh.run();
+            // @RefreshScope 的bean在刷新后第一次访问时重建，计入刷新耗时
+            read.get();
+            refreshNanos[i] = System.nanoTime() - start;
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        running.set(false);
+        stopped.await();
+        executor.shutdown();
+
+        Arrays.sort(refreshNanos);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("readNanosPerOp", (double) readNanos / reads);
+        result.put("concurrentReads", concurrentReads.sum());
+        result.put("maxReaderPauseMicros", Arrays.stream(maxPauses).max().orElse(0) / 1000.0);
+        result.put("refreshP50Micros", refreshNanos[refreshNanos.length / 2] / 1000.0);
+        result.put("refreshMaxMicros", refreshNanos[refreshNanos.length - 1] / 1000.0);
+        result.put("blackhole", blackhole);
+        return result;
+    }
+}
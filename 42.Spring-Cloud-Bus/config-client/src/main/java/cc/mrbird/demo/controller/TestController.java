@@ -1,19 +1,31 @@
 package cc.mrbird.demo.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import cc.mrbird.demo.config.ConfigSnapshotHolder;
+import cc.mrbird.demo.config.RefreshBenchmark;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
-@RefreshScope
 public class TestController {
 
-    @Value("${message}")
-    private String message;
+    @Autowired
+    private ConfigSnapshotHolder configSnapshotHolder;
+    @Autowired
+    private RefreshBenchmark refreshBenchmark;
 
     @GetMapping("message")
     public String getMessage() {
-        return this.message;
+        return this.configSnapshotHolder.get().getMessage();
+    }
+
+    @GetMapping("testRefresh")
+    public Map<String, Object> testRefresh(@RequestParam(defaultValue = "1000000") int reads,
+                                           @RequestParam(defaultValue = "4") int readers,
+                                           @RequestParam(defaultValue = "50") int refreshes) throws InterruptedException {
+        return this.refreshBenchmark.run(reads, readers, refreshes);
     }
 }
@@ -1,5 +1,9 @@
 package cc.mrbird.common.api;
 
+import cc.mrbird.common.api.dto.HelloPayload;
+
 public interface HelloService {
     String hello(String message);
+
+    HelloPayload echo(HelloPayload payload);
 }
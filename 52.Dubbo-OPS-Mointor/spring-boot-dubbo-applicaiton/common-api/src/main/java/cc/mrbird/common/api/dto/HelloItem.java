@@ -0,0 +1,66 @@
+package cc.mrbird.common.api.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+public class HelloItem implements Serializable {
+
+    private static final long serialVersionUID = 4212850562745331386L;
+
+    private Long id;
+    private String name;
+    private String description;
+    private Double score;
+    private Date createTime;
+
+    public HelloItem() {
+    }
+
+    public HelloItem(Long id, String name, String description, Double score, Date createTime) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.score = score;
+        this.createTime = createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+}
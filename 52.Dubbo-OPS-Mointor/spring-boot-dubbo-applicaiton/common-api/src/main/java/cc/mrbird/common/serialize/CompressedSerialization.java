@@ -0,0 +1,194 @@
+package cc.mrbird.common.serialize;
+
+import com.alibaba.dubbo.common.URL;
+import com.alibaba.dubbo.common.extension.ExtensionLoader;
+import com.alibaba.dubbo.common.serialize.ObjectInput;
+import com.alibaba.dubbo.common.serialize.ObjectOutput;
+import com.alibaba.dubbo.common.serialize.Serialization;
+import com.alibaba.dubbo.remoting.transport.CodecSupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 包装其他序列化方式，序列化后的数据超过阈值时用Deflate压缩。
+ * 数据格式：被包装的序列化方式编号(1字节) + 是否压缩(1字节) + 数据，
+ * 反序列化时按数据中的编号选择序列化方式，所以两端的阈值可以不同。
+ * 通过URL参数配置：compress.serialization（默认hessian2）、compress.threshold（字节，默认2048，-1不压缩）
+ *
+ * @author MrBird
+ */
+public class CompressedSerialization implements Serialization {
+
+    public static final String NAME = "compressed";
+    public static final String SERIALIZATION_KEY = "compress.serialization";
+    public static final String THRESHOLD_KEY = "compress.threshold";
+
+    private static final byte CONTENT_TYPE_ID = 30;
+    private static final String DEFAULT_SERIALIZATION = "hessian2";
+    private static final int DEFAULT_THRESHOLD = 2048;
+
+    // 本进程的收发统计，写出的字节数包含压缩前后的大小
+    private static final LongAdder WRITTEN_MESSAGES = new LongAdder();
+    private static final LongAdder COMPRESSED_MESSAGES = new LongAdder();
+    private static final LongAdder RAW_BYTES_OUT = new LongAdder();
+    private static final LongAdder WIRE_BYTES_OUT = new LongAdder();
+    private static final LongAdder READ_MESSAGES = new LongAdder();
+    private static final LongAdder WIRE_BYTES_IN = new LongAdder();
+
+    @Override
+    public byte getContentTypeId() {
+        return CONTENT_TYPE_ID;
+    }
+
+    @Override
+    public String getContentType() {
+        return "x-application/compressed";
+    }
+
+    @Override
+    public ObjectOutput serialize(URL url, OutputStream output) throws IOException {
+        String name = url == null ? DEFAULT_SERIALIZATION : url.getParameter(SERIALIZATION_KEY, DEFAULT_SERIALIZATION);
+        int threshold = url == null ? DEFAULT_THRESHOLD : url.getParameter(THRESHOLD_KEY, DEFAULT_THRESHOLD);
+        Serialization delegate = ExtensionLoader.getExtensionLoader(Serialization.class).getExtension(name);
+        return new CompressingObjectOutput(url, delegate, threshold, output);
+    }
+
+    @Override
+    public ObjectInput deserialize(URL url, InputStream input) throws IOException {
+        int available = input.available();
+        int id = input.read();
+        int compressed = input.read();
+        if (id < 0 || compressed < 0) {
+            throw new IOException("数据不完整，无法读取序列化方式");
+        }
+        Serialization delegate = CodecSupport.getSerializationById((byte) id);
+        if (delegate == null) {
+            throw new IOException("未知的序列化方式编号: " + id);
+        }
+        READ_MESSAGES.increment();
+        WIRE_BYTES_IN.add(available);
+        return delegate.deserialize(url, compressed == 1 ? new InflaterInputStream(input) : input);
+    }
+
+    public static Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writtenMessages", WRITTEN_MESSAGES.sum());
+        stats.put("compressedMessages", COMPRESSED_MESSAGES.sum());
+        stats.put("rawBytesOut", RAW_BYTES_OUT.sum());
+        stats.put("wireBytesOut", WIRE_BYTES_OUT.sum());
+        stats.put("readMessages", READ_MESSAGES.sum());
+        stats.put("wireBytesIn", WIRE_BYTES_IN.sum());
+        return stats;
+    }
+
+    /**
+     * 先写入内存缓冲区，flushBuffer时（Dubbo编码完一个请求或响应后调用一次）决定是否压缩并写出
+     */
+    private static class CompressingObjectOutput implements ObjectOutput {
+        private final byte delegateId;
+        private final int threshold;
+        private final OutputStream target;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private final ObjectOutput out;
+
+        CompressingObjectOutput(URL url, Serialization delegate, int threshold, OutputStream target) throws IOException {
+            this.delegateId = delegate.getContentTypeId();
+            this.threshold = threshold;
+            this.target = target;
+            this.out = delegate.serialize(url, buffer);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            out.flushBuffer();
+            int rawSize = buffer.size();
+            target.write(delegateId);
+            if (threshold >= 0 && rawSize > threshold) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(rawSize / 2);
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater)) {
+                    buffer.writeTo(deflaterOut);
+                } finally {
+                    deflater.end();
+                }
+                target.write(1);
+                compressed.writeTo(target);
+                COMPRESSED_MESSAGES.increment();
+                WIRE_BYTES_OUT.add(compressed.size() + 2);
+            } else {
+                target.write(0);
+                buffer.writeTo(target);
+                WIRE_BYTES_OUT.add(rawSize + 2);
+            }
+            WRITTEN_MESSAGES.increment();
+            RAW_BYTES_OUT.add(rawSize);
+            buffer.reset();
+            target.flush();
+        }
+
+        @Override
+        public void writeObject(Object obj) throws IOException {
+            out.writeObject(obj);
+        }
+
+        @Override
+        public void writeBool(boolean v) throws IOException {
+            out.writeBool(v);
+        }
+
+        @Override
+        public void writeByte(byte v) throws IOException {
+            out.writeByte(v);
+        }
+
+        @Override
+        public void writeShort(short v) throws IOException {
+            out.writeShort(v);
+        }
+
+        @Override
+        public void writeInt(int v) throws IOException {
+            out.writeInt(v);
+        }
+
+        @Override
+        public void writeLong(long v) throws IOException {
+            out.writeLong(v);
+        }
+
+        @Override
+        public void writeFloat(float v) throws IOException {
+            out.writeFloat(v);
+        }
+
+        @Override
+        public void writeDouble(double v) throws IOException {
+            out.writeDouble(v);
+        }
+
+        @Override
+        public void writeUTF(String v) throws IOException {
+            out.writeUTF(v);
+        }
+
+        @Override
+        public void writeBytes(byte[] v) throws IOException {
+            out.writeBytes(v);
+        }
+
+        @Override
+        public void writeBytes(byte[] v, int off, int len) throws IOException {
+            out.writeBytes(v, off, len);
+        }
+    }
+}
@@ -1,19 +1,48 @@
 package cc.mrbird.consumer.controller;
 
 import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.serialize.CompressedSerialization;
+import cc.mrbird.consumer.service.PayloadBenchmark;
+import cc.mrbird.consumer.service.SerializationBenchmark;
 import com.alibaba.dubbo.config.annotation.Reference;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.Map;
+
 @RestController
 public class HelloController {
 
     @Reference
     private HelloService helloService;
+    @Autowired
+    private SerializationBenchmark serializationBenchmark;
+    @Autowired
+    private PayloadBenchmark payloadBenchmark;
 
     @GetMapping("/hello/{message}")
     public String hello(@PathVariable String message) {
         return this.helloService.hello(message);
     }
+
+    @GetMapping("/testSerialization")
+    public Map<String, Object> testSerialization(@RequestParam(defaultValue = "100") int items,
+                                                 @RequestParam(defaultValue = "1000") int iterations) throws IOException {
+        return this.serializationBenchmark.run(items, iterations);
+    }
+
+    @GetMapping("/testPayload")
+    public Map<String, Object> testPayload(@RequestParam(defaultValue = "100") int items,
+                                           @RequestParam(defaultValue = "500") int calls) {
+        return this.payloadBenchmark.run(items, calls);
+    }
+
+    @GetMapping("/serialization/stats")
+    public Map<String, Object> serializationStats() {
+        return CompressedSerialization.stats();
+    }
 }
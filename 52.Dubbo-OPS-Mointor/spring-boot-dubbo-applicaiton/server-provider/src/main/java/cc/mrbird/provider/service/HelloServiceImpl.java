@@ -1,6 +1,7 @@
 package cc.mrbird.provider.service;
 
 import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.api.dto.HelloPayload;
 import com.alibaba.dubbo.config.annotation.Service;
 import org.springframework.stereotype.Component;
 
@@ -11,4 +12,10 @@ public class HelloServiceImpl implements HelloService {
     public String hello(String message) {
         return "hello," + message;
     }
+
+    @Override
+    public HelloPayload echo(HelloPayload payload) {
+        payload.setMessage("hello," + payload.getMessage());
+        return payload;
+    }
 }
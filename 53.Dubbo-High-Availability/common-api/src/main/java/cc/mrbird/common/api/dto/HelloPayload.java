@@ -0,0 +1,66 @@
+package cc.mrbird.common.api.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用于对比序列化方式和压缩效果的较大请求/响应对象
+ *
+ * @author MrBird
+ */
+public class HelloPayload implements Serializable {
+
+    private static final long serialVersionUID = -2690451373524736374L;
+
+    private String message;
+    private Map<String, String> attributes;
+    private List<HelloItem> items;
+
+    /**
+     * 生成包含指定数量条目的对象
+     */
+    public static HelloPayload of(String message, int size) {
+        HelloPayload payload = new HelloPayload();
+        payload.setMessage(message);
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("source", "server-consumer");
+        attributes.put("size", String.valueOf(size));
+        payload.setAttributes(attributes);
+        List<HelloItem> items = new ArrayList<>(size);
+        Date now = new Date();
+        for (int i = 0; i < size; i++) {
+            items.add(new HelloItem((long) i, "item-" + i, "description of item " + i + " for " + message,
+                    i * 0.5, now));
+        }
+        payload.setItems(items);
+        return payload;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+    public List<HelloItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<HelloItem> items) {
+        this.items = items;
+    }
+}
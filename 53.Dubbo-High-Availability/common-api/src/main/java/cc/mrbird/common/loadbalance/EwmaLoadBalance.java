@@ -0,0 +1,82 @@
+package cc.mrbird.common.loadbalance;
+
+import com.alibaba.dubbo.common.URL;
+import com.alibaba.dubbo.rpc.Invocation;
+import com.alibaba.dubbo.rpc.Invoker;
+import com.alibaba.dubbo.rpc.cluster.loadbalance.AbstractLoadBalance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟感知的负载均衡：随机取两个提供方，选择 EWMA响应时间 * (正在处理的调用数 + 1) / 权重 较小的一个。
+ * 还没有延迟数据的提供方按其他提供方的平均EWMA计算，都没有数据时使用默认响应时间，保证代价的单位一致。
+ * 权重使用Dubbo的预热权重，新启动的提供方在预热期内（默认10分钟）权重从低到高逐渐增加，
+ * 避免刚启动、还没有延迟数据的提供方一下子接收大量请求
+ *
+ * @author MrBird
+ */
+public class EwmaLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "ewma";
+
+    // 所有提供方都没有延迟数据时使用的响应时间
+    private static final double DEFAULT_RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ProviderLatencyStats stats;
+
+    public EwmaLoadBalance() {
+        this(ProviderLatencyStats.getInstance());
+    }
+
+    public EwmaLoadBalance(ProviderLatencyStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, URL url, Invocation invocation) {
+        int size = invokers.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Invoker<T> a = invokers.get(first);
+        Invoker<T> b = invokers.get(second);
+        double coldEwma = coldEwma(invokers, invocation);
+        double costA = cost(a, invocation, coldEwma);
+        double costB = cost(b, invocation, coldEwma);
+        if (costA == costB) {
+            return stats.inFlight(key(a, invocation)) <= stats.inFlight(key(b, invocation)) ? a : b;
+        }
+        return costA < costB ? a : b;
+    }
+
+    private double cost(Invoker<?> invoker, Invocation invocation, double coldEwma) {
+        int weight = Math.max(getWeight(invoker, invocation), 1);
+        String key = key(invoker, invocation);
+        double ewma = stats.ewma(key);
+        // 预热中的提供方权重低，代价更高
+        return (ewma == 0 ? coldEwma : ewma) * (stats.inFlight(key) + 1) / weight;
+    }
+
+    // 有延迟数据的提供方的平均EWMA，作为没有数据的提供方的响应时间
+    private <T> double coldEwma(List<Invoker<T>> invokers, Invocation invocation) {
+        double sum = 0;
+        int count = 0;
+        for (Invoker<T> invoker : invokers) {
+            double ewma = stats.ewma(key(invoker, invocation));
+            if (ewma > 0) {
+                sum += ewma;
+                count++;
+            }
+        }
+        return count == 0 ? DEFAULT_RTT_NANOS : sum / count;
+    }
+
+    public static String key(Invoker<?> invoker, Invocation invocation) {
+        return invoker.getUrl().toIdentityString() + "#" + invocation.getMethodName();
+    }
+}
@@ -0,0 +1,76 @@
+package cc.mrbird.common.loadbalance;
+
+import com.alibaba.dubbo.common.Constants;
+import com.alibaba.dubbo.common.extension.Activate;
+import com.alibaba.dubbo.remoting.exchange.ResponseCallback;
+import com.alibaba.dubbo.rpc.Filter;
+import com.alibaba.dubbo.rpc.Invocation;
+import com.alibaba.dubbo.rpc.Invoker;
+import com.alibaba.dubbo.rpc.Result;
+import com.alibaba.dubbo.rpc.RpcContext;
+import com.alibaba.dubbo.rpc.RpcException;
+import com.alibaba.dubbo.rpc.protocol.dubbo.FutureAdapter;
+import com.alibaba.dubbo.rpc.support.RpcUtils;
+
+import java.util.concurrent.Future;
+
+/**
+ * 消费端记录每个提供方的响应时间和正在处理的调用数，供 EwmaLoadBalance 使用。
+ * 失败的调用按惩罚响应时间记录，异步调用在响应回调中记录
+ *
+ * @author MrBird
+ */
+@Activate(group = Constants.CONSUMER)
+public class LatencyStatsFilter implements Filter {
+
+    private final ProviderLatencyStats stats = ProviderLatencyStats.getInstance();
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        String key = EwmaLoadBalance.key(invoker, invocation);
+        long start = System.nanoTime();
+        stats.start(key);
+        boolean async = false;
+        boolean failed = true;
+        try {
+            Result result = invoker.invoke(invocation);
+            if (RpcUtils.isAsync(invoker.getUrl(), invocation)) {
+                async = recordOnResponse(key, start);
+            }
+            failed = result.hasException();
+            return result;
+        } finally {
+            if (!async) {
+                record(key, start, failed);
+            }
+        }
+    }
+
+    private void record(String key, long start, boolean failed) {
+        long rtt = System.nanoTime() - start;
+        if (failed) {
+            stats.fail(key, rtt);
+        } else {
+            stats.finish(key, rtt);
+        }
+    }
+
+    private boolean recordOnResponse(String key, long start) {
+        Future<?> future = RpcContext.getContext().getFuture();
+        if (!(future instanceof FutureAdapter)) {
+            return false;
+        }
+        ((FutureAdapter<?>) future).getFuture().setCallback(new ResponseCallback() {
+            @Override
+            public void done(Object response) {
+                record(key, start, response instanceof Result && ((Result) response).hasException());
+            }
+
+            @Override
+            public void caught(Throwable exception) {
+                record(key, start, true);
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package cc.mrbird.common.loadbalance;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 每个服务提供方每个方法的Peak EWMA响应时间和正在处理的调用数。
+ * 读取时EWMA按距离上次更新的时间衰减，避免因一次变慢而长期选不到、也就没有新数据的提供方一直被饿死；
+ * 失败的调用按惩罚响应时间记录，避免快速失败的提供方看起来响应最快。
+ * Dubbo按SPI创建 LoadBalance 和 Filter，两者通过静态实例共享数据
+ *
+ * @author MrBird
+ */
+public class ProviderLatencyStats {
+
+    private static final ProviderLatencyStats INSTANCE = new ProviderLatencyStats(TimeUnit.SECONDS.toNanos(10));
+
+    // EWMA的衰减时间常数
+    private final long decayNanos;
+    // 失败调用至少按该响应时间记录
+    private final long failurePenaltyNanos;
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public ProviderLatencyStats(long decayNanos) {
+        this(decayNanos, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public ProviderLatencyStats(long decayNanos, long failurePenaltyNanos) {
+        this.decayNanos = decayNanos;
+        this.failurePenaltyNanos = failurePenaltyNanos;
+    }
+
+    public static ProviderLatencyStats getInstance() {
+        return INSTANCE;
+    }
+
+    public void start(String key) {
+        stats(key).inFlight.incrementAndGet();
+    }
+
+    public void finish(String key, long rttNanos) {
+        Stats s = stats(key);
+        s.inFlight.decrementAndGet();
+        s.observe(rttNanos, System.nanoTime(), decayNanos);
+    }
+
+    /**
+     * 调用失败：响应时间至少按惩罚时间记录
+     */
+    public void fail(String key, long rttNanos) {
+        finish(key, Math.max(rttNanos, failurePenaltyNanos));
+    }
+
+    /**
+     * 按当前时间衰减后的EWMA响应时间，还没有数据时为0
+     */
+    public double ewma(String key) {
+        Stats s = stats.get(key);
+        return s == null ? 0 : s.ewma(System.nanoTime(), decayNanos);
+    }
+
+    public int inFlight(String key) {
+        Stats s = stats.get(key);
+        return s == null ? 0 : s.inFlight.get();
+    }
+
+    private Stats stats(String key) {
+        return stats.computeIfAbsent(key, k -> new Stats());
+    }
+
+    private static class Stats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastUpdate = System.nanoTime();
+
+        synchronized void observe(long rttNanos, long now, long decayNanos) {
+            if (rttNanos > ewmaNanos) {
+                // 变慢时立即反映，变快时逐渐衰减
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdate) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        // 没有新数据时向0衰减，被惩罚的提供方过一段时间后会重新被选中并得到新的数据
+        synchronized double ewma(long now, long decayNanos) {
+            return ewmaNanos * Math.exp(-(double) Math.max(0, now - lastUpdate) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package cc.mrbird.common.serialize;
+
+import cc.mrbird.common.api.dto.HelloItem;
+import cc.mrbird.common.api.dto.HelloPayload;
+import com.alibaba.dubbo.common.serialize.support.SerializationOptimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+
+/**
+ * 预先向kryo、fst注册接口中传输的类，序列化时只写类的编号而不是完整类名。
+ * 通过 dubbo.protocol.optimizer 配置，提供方和消费方注册的类及顺序需要一致
+ *
+ * @author MrBird
+ */
+public class SerializationOptimizerImpl implements SerializationOptimizer {
+
+    @Override
+    public Collection<Class> getSerializableClasses() {
+        return Arrays.asList(
+                HelloPayload.class,
+                HelloItem.class,
+                ArrayList.class,
+                HashMap.class,
+                Date.class);
+    }
+}
@@ -0,0 +1,180 @@
+package cc.mrbird.consumer.loadbalance;
+
+import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.loadbalance.EwmaLoadBalance;
+import cc.mrbird.common.loadbalance.ProviderLatencyStats;
+import com.alibaba.dubbo.common.URL;
+import com.alibaba.dubbo.rpc.Invocation;
+import com.alibaba.dubbo.rpc.Invoker;
+import com.alibaba.dubbo.rpc.Result;
+import com.alibaba.dubbo.rpc.RpcInvocation;
+import com.alibaba.dubbo.rpc.RpcResult;
+import com.alibaba.dubbo.rpc.cluster.LoadBalance;
+import com.alibaba.dubbo.rpc.cluster.loadbalance.RandomLoadBalance;
+import com.alibaba.dubbo.rpc.cluster.loadbalance.RoundRobinLoadBalance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模拟若干个直连的服务提供方，其中第一个响应变慢，对比Dubbo默认的随机、轮询和 EwmaLoadBalance 的尾延迟。
+ * 提供方的响应用sleep模拟，不需要启动zookeeper和真实的服务提供方；
+ * 可选让最后一个提供方处于预热期（60秒预热，已启动30秒），观察预热权重对流量的影响
+ *
+ * @author MrBird
+ */
+@Component
+public class LoadBalanceBenchmark {
+
+    // 正常提供方的响应时间
+    private static final long NORMAL_MILLIS = 10;
+
+    /**
+     * @param calls       总调用数
+     * @param concurrency 并发的调用方数量
+     * @param providers   提供方数量，第一个为慢提供方
+     * @param slowMillis  慢提供方的响应时间
+     * @param warming     最后一个提供方是否处于预热期
+     */
+    public Map<String, Object> run(int calls, int concurrency, int providers, long slowMillis, boolean warming)
+            throws InterruptedException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", calls);
+        result.put("concurrency", concurrency);
+        result.put("providers", providers);
+        result.put("slowMillis", slowMillis);
+        result.put("warming", warming);
+        ProviderLatencyStats randomStats = new ProviderLatencyStats(TimeUnit.SECONDS.toNanos(1));
+        result.put(RandomLoadBalance.NAME, simulate(new RandomLoadBalance(), randomStats,
+                calls, concurrency, providers, slowMillis, warming));
+        ProviderLatencyStats roundRobinStats = new ProviderLatencyStats(TimeUnit.SECONDS.toNanos(1));
+        result.put(RoundRobinLoadBalance.NAME, simulate(new RoundRobinLoadBalance(), roundRobinStats,
+                calls, concurrency, providers, slowMillis, warming));
+        ProviderLatencyStats ewmaStats = new ProviderLatencyStats(TimeUnit.SECONDS.toNanos(1));
+        result.put(EwmaLoadBalance.NAME, simulate(new EwmaLoadBalance(ewmaStats), ewmaStats,
+                calls, concurrency, providers, slowMillis, warming));
+        return result;
+    }
+
+    private Map<String, Object> simulate(LoadBalance loadBalance, ProviderLatencyStats stats, int calls, int concurrency,
+                                         int providers, long slowMillis, boolean warming) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        List<Invoker<HelloService>> invokers = new ArrayList<>();
+        for (int i = 0; i < providers; i++) {
+            boolean warmingProvider = warming && providers > 1 && i == providers - 1;
+            // 预热中的提供方30秒前启动，其余的1小时前启动
+            long timestamp = warmingProvider ? now - 30_000 : now - 3600_000;
+            URL url = URL.valueOf("dubbo://127.0.0.1:" + (20880 + i) + "/" + HelloService.class.getName()
+                    + "?weight=100&warmup=60000&timestamp=" + timestamp + "&remote.timestamp=" + timestamp);
+            invokers.add(new SimulatedInvoker(url, i == 0 ? slowMillis : NORMAL_MILLIS));
+        }
+        URL consumerUrl = URL.valueOf("consumer://127.0.0.1/" + HelloService.class.getName());
+
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(calls);
+        AtomicInteger sequence = new AtomicInteger();
+        long[] latencies = new long[calls];
+        Map<String, LongAdder> distribution = new ConcurrentHashMap<>();
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            callers.execute(() -> {
+                int index;
+                while ((index = sequence.getAndIncrement()) < calls) {
+                    Invocation invocation = new RpcInvocation("hello", new Class<?>[]{String.class},
+                            new Object[]{String.valueOf(index)});
+                    long start = System.nanoTime();
+                    Invoker<HelloService> invoker = loadBalance.select(invokers, consumerUrl, invocation);
+                    String key = EwmaLoadBalance.key(invoker, invocation);
+                    distribution.computeIfAbsent(invoker.getUrl().getAddress(), k -> new LongAdder()).increment();
+                    stats.start(key);
+                    long rtt = System.nanoTime();
+                    try {
+                        invoker.invoke(invocation);
+                    } finally {
+                        stats.finish(key, System.nanoTime() - rtt);
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        callers.shutdown();
+
+        Arrays.sort(latencies);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("p50Ms", percentile(latencies, 0.5));
+        result.put("p99Ms", percentile(latencies, 0.99));
+        result.put("maxMs", latencies[latencies.length - 1] / 1_000_000.0);
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        Map<String, Long> perProvider = new LinkedHashMap<>();
+        invokers.forEach(invoker -> {
+            LongAdder count = distribution.get(invoker.getUrl().getAddress());
+            perProvider.put(invoker.getUrl().getAddress(), count == null ? 0 : count.sum());
+        });
+        result.put("callsPerProvider", perProvider);
+        return result;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * 用sleep模拟响应时间的提供方
+     */
+    private static class SimulatedInvoker implements Invoker<HelloService> {
+        private final URL url;
+        private final long millis;
+
+        SimulatedInvoker(URL url, long millis) {
+            this.url = url;
+            this.millis = millis;
+        }
+
+        @Override
+        public Class<HelloService> getInterface() {
+            return HelloService.class;
+        }
+
+        @Override
+        public Result invoke(Invocation invocation) {
+            try {
+                // 模拟±20%的响应时间抖动
+                TimeUnit.MICROSECONDS.sleep(millis * ThreadLocalRandom.current().nextInt(800, 1200));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new RpcResult("hello," + invocation.getArguments()[0]);
+        }
+
+        @Override
+        public URL getUrl() {
+            return url;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
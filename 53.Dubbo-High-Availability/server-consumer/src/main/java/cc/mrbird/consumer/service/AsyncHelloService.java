@@ -0,0 +1,62 @@
+package cc.mrbird.consumer.service;
+
+import cc.mrbird.common.api.HelloService;
+import com.alibaba.dubbo.config.annotation.Reference;
+import com.alibaba.dubbo.remoting.exchange.ResponseCallback;
+import com.alibaba.dubbo.rpc.Result;
+import com.alibaba.dubbo.rpc.RpcContext;
+import com.alibaba.dubbo.rpc.protocol.dubbo.FutureAdapter;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * HelloService 的异步版本。当前Dubbo版本的接口不能直接返回 CompletableFuture，
+ * 这里通过 RpcContext#asyncCall 把单次调用标记为异步，在响应回调中完成 CompletableFuture，调用线程不等待RPC返回。
+ * 注意不能另外声明 async = true 的 @Reference：当前版本按接口、版本、分组缓存ReferenceBean，
+ * 与同步调用的引用会共用同一个ReferenceBean，先注入的配置生效
+ *
+ * @author MrBird
+ */
+@Service
+public class AsyncHelloService {
+
+    @Reference(timeout = 1000)
+    private HelloService helloService;
+
+    public CompletableFuture<String> hello(String message) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Future<String> future = RpcContext.getContext().asyncCall(() -> helloService.hello(message));
+        if (!(future instanceof FutureAdapter)) {
+            // 调用在发出前就失败，或者没有走异步调用，结果已经确定
+            try {
+                result.complete(future.get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause() == null ? e : e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        ((FutureAdapter<String>) future).getFuture().setCallback(new ResponseCallback() {
+            @Override
+            public void done(Object response) {
+                Result rpcResult = (Result) response;
+                if (rpcResult.hasException()) {
+                    result.completeExceptionally(rpcResult.getException());
+                } else {
+                    result.complete((String) rpcResult.getValue());
+                }
+            }
+
+            @Override
+            public void caught(Throwable exception) {
+                result.completeExceptionally(exception);
+            }
+        });
+        return result;
+    }
+}
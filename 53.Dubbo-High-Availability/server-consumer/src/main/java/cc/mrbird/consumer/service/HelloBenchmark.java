@@ -0,0 +1,81 @@
+package cc.mrbird.consumer.service;
+
+import cc.mrbird.common.api.HelloService;
+import com.alibaba.dubbo.config.annotation.Reference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 服务提供方响应慢时，对比同步调用（每个并发调用占用一个线程）和异步调用的吞吐量与线程数。
+ * 提供方可通过 hello.delay 配置响应延迟
+ *
+ * @author MrBird
+ */
+@Component
+public class HelloBenchmark {
+
+    @Reference(timeout = 1000)
+    private HelloService helloService;
+    @Autowired
+    private AsyncHelloService asyncHelloService;
+
+    /**
+     * @param calls 同时发出的调用数
+     * @param async true：AsyncHelloService；false：同步调用
+     */
+    public Map<String, Object> run(int calls, boolean async) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        AtomicInteger errors = new AtomicInteger();
+
+        long begin = System.nanoTime();
+        if (async) {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[calls];
+            for (int i = 0; i < calls; i++) {
+                futures[i] = asyncHelloService.hello(String.valueOf(i)).exceptionally(e -> {
+                    errors.incrementAndGet();
+                    return null;
+                });
+            }
+            CompletableFuture.allOf(futures).join();
+        } else {
+            ExecutorService callers = Executors.newFixedThreadPool(calls);
+            CountDownLatch done = new CountDownLatch(calls);
+            for (int i = 0; i < calls; i++) {
+                String message = String.valueOf(i);
+                callers.execute(() -> {
+                    try {
+                        helloService.hello(message);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            callers.shutdown();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", calls);
+        result.put("async", async);
+        result.put("errors", errors.get());
+        result.put("peakThreads", threadMXBean.getPeakThreadCount());
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("callsPerSecond", elapsed == 0 ? 0 : calls * 1_000_000_000L / elapsed);
+        return result;
+    }
+}
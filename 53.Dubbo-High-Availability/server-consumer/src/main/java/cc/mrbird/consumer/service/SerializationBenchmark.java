@@ -0,0 +1,102 @@
+package cc.mrbird.consumer.service;
+
+import cc.mrbird.common.api.dto.HelloPayload;
+import cc.mrbird.common.serialize.CompressedSerialization;
+import cc.mrbird.common.serialize.SerializationOptimizerImpl;
+import com.alibaba.dubbo.common.URL;
+import com.alibaba.dubbo.common.extension.ExtensionLoader;
+import com.alibaba.dubbo.common.serialize.ObjectInput;
+import com.alibaba.dubbo.common.serialize.ObjectOutput;
+import com.alibaba.dubbo.common.serialize.Serialization;
+import com.alibaba.dubbo.common.serialize.support.SerializableClassRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 不经过网络，对比各序列化方式（及压缩）处理 HelloPayload 的数据大小和耗时。
+ * 先预热再计时，取平均值
+ *
+ * @author MrBird
+ */
+@Component
+public class SerializationBenchmark {
+
+    private static final String[][] CASES = {
+            // 名称, 序列化方式, 被包装的序列化方式, 压缩阈值
+            {"hessian2", "hessian2", null, null},
+            {"kryo", "kryo", null, null},
+            {"compressed-hessian2", CompressedSerialization.NAME, "hessian2", "2048"},
+            {"compressed-kryo", CompressedSerialization.NAME, "kryo", "2048"}
+    };
+
+    public SerializationBenchmark() {
+        // 与 dubbo.protocol.optimizer 的作用相同，保证kryo使用注册的类编号
+        new SerializationOptimizerImpl().getSerializableClasses().forEach(SerializableClassRegistry::registerClass);
+    }
+
+    /**
+     * @param items      HelloPayload 中的条目数
+     * @param iterations 计时的序列化+反序列化次数，预热次数与之相同
+     */
+    public Map<String, Object> run(int items, int iterations) throws IOException {
+        HelloPayload payload = HelloPayload.of("benchmark", items);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", items);
+        result.put("iterations", iterations);
+        for (String[] c : CASES) {
+            URL url = URL.valueOf("dubbo://127.0.0.1:20880/benchmark");
+            if (c[2] != null) {
+                url = url.addParameter(CompressedSerialization.SERIALIZATION_KEY, c[2])
+                        .addParameter(CompressedSerialization.THRESHOLD_KEY, c[3]);
+            }
+            Serialization serialization = ExtensionLoader.getExtensionLoader(Serialization.class).getExtension(c[1]);
+            result.put(c[0], measure(serialization, url, payload, iterations));
+        }
+        return result;
+    }
+
+    private Map<String, Object> measure(Serialization serialization, URL url, HelloPayload payload, int iterations)
+            throws IOException {
+        byte[] bytes = serialize(serialization, url, payload);
+        for (int i = 0; i < iterations; i++) {
+            deserialize(serialization, url, serialize(serialization, url, payload));
+        }
+        long serializeNanos = 0;
+        long deserializeNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            bytes = serialize(serialization, url, payload);
+            long middle = System.nanoTime();
+            deserialize(serialization, url, bytes);
+            deserializeNanos += System.nanoTime() - middle;
+            serializeNanos += middle - start;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bytes", bytes.length);
+        result.put("serializeMicros", serializeNanos / 1000.0 / iterations);
+        result.put("deserializeMicros", deserializeNanos / 1000.0 / iterations);
+        return result;
+    }
+
+    private byte[] serialize(Serialization serialization, URL url, HelloPayload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutput out = serialization.serialize(url, bytes);
+        out.writeObject(payload);
+        out.flushBuffer();
+        return bytes.toByteArray();
+    }
+
+    private HelloPayload deserialize(Serialization serialization, URL url, byte[] bytes) throws IOException {
+        ObjectInput in = serialization.deserialize(url, new ByteArrayInputStream(bytes));
+        try {
+            return in.readObject(HelloPayload.class);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package cc.mrbird.provider.circuitbreaker;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在服务实现类的方法上，由 CircuitBreakerFilter 在Dubbo工作线程中做信号量隔离和熔断，
+ * 默认值与Hystrix一致
+ *
+ * @author MrBird
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CircuitBreaker {
+
+    /**
+     * 同一个类中的降级方法，参数与被标注的方法相同，为空时直接返回异常
+     */
+    String fallbackMethod() default "";
+
+    /**
+     * 最大并发调用数，超过时直接降级
+     */
+    int maxConcurrent() default 10;
+
+    /**
+     * 统计窗口内的调用数达到该值后才会计算错误率
+     */
+    int requestVolumeThreshold() default 20;
+
+    /**
+     * 统计窗口内的错误率达到该值（百分比）时打开熔断器
+     */
+    int errorThresholdPercentage() default 50;
+
+    /**
+     * 熔断器打开多久后放行一个试探调用，单位毫秒
+     */
+    long sleepWindowMillis() default 5000;
+
+    /**
+     * 滑动统计窗口的长度，单位毫秒
+     */
+    long windowMillis() default 10000;
+
+    /**
+     * 滑动统计窗口分成的桶数
+     */
+    int buckets() default 10;
+}
@@ -0,0 +1,52 @@
+package cc.mrbird.provider.circuitbreaker;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 扫描服务实现类中标注了 @CircuitBreaker 的方法，按其实现的接口方法注册熔断器和降级方法
+ *
+ * @author MrBird
+ */
+@Component
+public class CircuitBreakerAnnotationProcessor implements BeanPostProcessor {
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.getInstance();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        ReflectionUtils.doWithMethods(targetClass, method -> {
+            CircuitBreaker config = method.getAnnotation(CircuitBreaker.class);
+            if (config == null) {
+                return;
+            }
+            Method fallback = null;
+            if (StringUtils.hasText(config.fallbackMethod())) {
+                fallback = ReflectionUtils.findMethod(targetClass, config.fallbackMethod(), method.getParameterTypes());
+                if (fallback == null || !method.getReturnType().isAssignableFrom(fallback.getReturnType())) {
+                    throw new BeanCreationException(beanName, "找不到降级方法 " + config.fallbackMethod()
+                            + "，参数和返回值需与 " + method.getName() + " 一致");
+                }
+                ReflectionUtils.makeAccessible(fallback);
+            }
+            CircuitBreakerRegistry.Entry entry = new CircuitBreakerRegistry.Entry(
+                    new SlidingWindowCircuitBreaker(config), bean, fallback);
+            for (Class<?> serviceInterface : ClassUtils.getAllInterfacesForClass(targetClass)) {
+                if (ClassUtils.hasMethod(serviceInterface, method.getName(), method.getParameterTypes())) {
+                    registry.register(CircuitBreakerRegistry.key(serviceInterface.getName(), method.getName(),
+                            method.getParameterTypes()), entry);
+                }
+            }
+        });
+        return bean;
+    }
+}
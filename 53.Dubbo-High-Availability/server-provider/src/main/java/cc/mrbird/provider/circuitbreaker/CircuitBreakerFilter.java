@@ -0,0 +1,66 @@
+package cc.mrbird.provider.circuitbreaker;
+
+import com.alibaba.dubbo.common.Constants;
+import com.alibaba.dubbo.common.extension.Activate;
+import com.alibaba.dubbo.rpc.Filter;
+import com.alibaba.dubbo.rpc.Invocation;
+import com.alibaba.dubbo.rpc.Invoker;
+import com.alibaba.dubbo.rpc.Result;
+import com.alibaba.dubbo.rpc.RpcException;
+import com.alibaba.dubbo.rpc.RpcResult;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * 提供方的熔断过滤器，替代 @HystrixCommand。
+ * 调用直接在Dubbo工作线程中执行，不再切换到Hystrix线程池；
+ * 熔断器打开、并发数超限或调用出错时执行 @CircuitBreaker 配置的降级方法
+ *
+ * @author MrBird
+ */
+@Activate(group = Constants.PROVIDER)
+public class CircuitBreakerFilter implements Filter {
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.getInstance();
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        CircuitBreakerRegistry.Entry entry = registry.get(CircuitBreakerRegistry.key(
+                invoker.getInterface().getName(), invocation.getMethodName(), invocation.getParameterTypes()));
+        if (entry == null) {
+            return invoker.invoke(invocation);
+        }
+        SlidingWindowCircuitBreaker breaker = entry.getBreaker();
+        if (!breaker.tryAcquire()) {
+            return fallback(entry, invocation, new RpcResult(new RpcException(RpcException.FORBIDDEN_EXCEPTION,
+                    "熔断器打开或并发数超限: " + invocation.getMethodName())));
+        }
+        Result result;
+        try {
+            result = invoker.invoke(invocation);
+        } catch (RuntimeException e) {
+            breaker.onFailure();
+            return fallback(entry, invocation, new RpcResult(e));
+        }
+        if (result.hasException()) {
+            breaker.onFailure();
+            return fallback(entry, invocation, result);
+        }
+        breaker.onSuccess();
+        return result;
+    }
+
+    private Result fallback(CircuitBreakerRegistry.Entry entry, Invocation invocation, Result failure) {
+        if (entry.getFallback() == null) {
+            return failure;
+        }
+        try {
+            Object value = entry.getFallback().invoke(entry.getTarget(), invocation.getArguments());
+            entry.getBreaker().onFallback();
+            return new RpcResult(value);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // 降级也失败时返回原来的异常
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package cc.mrbird.provider.circuitbreaker;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 按 接口名#方法名(参数类型) 保存熔断器和降级方法。
+ * Dubbo按SPI创建Filter，不是Spring bean，所以通过静态实例共享
+ *
+ * @author MrBird
+ */
+public class CircuitBreakerRegistry {
+
+    private static final CircuitBreakerRegistry INSTANCE = new CircuitBreakerRegistry();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public static CircuitBreakerRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public void register(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new TreeMap<>();
+        entries.forEach((key, entry) -> metrics.put(key, entry.breaker.metrics()));
+        return metrics;
+    }
+
+    public static String key(String interfaceName, String methodName, Class<?>[] parameterTypes) {
+        return interfaceName + "#" + methodName + Arrays.stream(parameterTypes)
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    public static class Entry {
+        private final SlidingWindowCircuitBreaker breaker;
+        // 降级方法所在的bean和方法，没有配置时为null
+        private final Object target;
+        private final Method fallback;
+
+        public Entry(SlidingWindowCircuitBreaker breaker, Object target, Method fallback) {
+            this.breaker = breaker;
+            this.target = target;
+            this.fallback = fallback;
+        }
+
+        public SlidingWindowCircuitBreaker getBreaker() {
+            return breaker;
+        }
+
+        public Object getTarget() {
+            return target;
+        }
+
+        public Method getFallback() {
+            return fallback;
+        }
+    }
+}
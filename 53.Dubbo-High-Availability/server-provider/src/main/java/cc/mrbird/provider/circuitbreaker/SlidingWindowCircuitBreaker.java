@@ -0,0 +1,181 @@
+package cc.mrbird.provider.circuitbreaker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的滑动窗口熔断器 + 信号量隔离。
+ * 窗口按时间分桶，过期的桶通过CAS替换；状态切换（关闭 -> 打开 -> 半开 -> 关闭）同样通过CAS完成，
+ * 调用始终在调用方线程中执行
+ *
+ * @author MrBird
+ */
+public class SlidingWindowCircuitBreaker {
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    private final int maxConcurrent;
+    private final int requestVolumeThreshold;
+    private final int errorThresholdPercentage;
+    private final long sleepWindowMillis;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private volatile long openedAt;
+    private final AtomicInteger concurrent = new AtomicInteger();
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public SlidingWindowCircuitBreaker(CircuitBreaker config) {
+        this(config.maxConcurrent(), config.requestVolumeThreshold(), config.errorThresholdPercentage(),
+                config.sleepWindowMillis(), config.windowMillis(), config.buckets());
+    }
+
+    public SlidingWindowCircuitBreaker(int maxConcurrent, int requestVolumeThreshold, int errorThresholdPercentage,
+                                       long sleepWindowMillis, long windowMillis, int buckets) {
+        this.maxConcurrent = maxConcurrent;
+        this.requestVolumeThreshold = requestVolumeThreshold;
+        this.errorThresholdPercentage = errorThresholdPercentage;
+        this.sleepWindowMillis = sleepWindowMillis;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.buckets = new AtomicReferenceArray<>(buckets);
+    }
+
+    /**
+     * 获取并发许可并判断熔断器是否放行，返回true时调用结束后必须调用 onSuccess 或 onFailure
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = concurrent.get();
+            if (current >= maxConcurrent) {
+                rejected.increment();
+                return false;
+            }
+        } while (!concurrent.compareAndSet(current, current + 1));
+        if (!allowRequest()) {
+            concurrent.decrementAndGet();
+            shortCircuited.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean allowRequest() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                // 超过休眠时间后只放行一个试探调用
+                return System.currentTimeMillis() - openedAt >= sleepWindowMillis
+                        && state.compareAndSet(OPEN, HALF_OPEN);
+            default:
+                return false;
+        }
+    }
+
+    public void onSuccess() {
+        concurrent.decrementAndGet();
+        successes.increment();
+        if (state.get() == HALF_OPEN && state.compareAndSet(HALF_OPEN, CLOSED)) {
+            // 试探成功，清空窗口重新统计
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, null);
+            }
+            return;
+        }
+        currentBucket().successes.increment();
+    }
+
+    public void onFailure() {
+        concurrent.decrementAndGet();
+        failures.increment();
+        long now = System.currentTimeMillis();
+        if (state.get() == HALF_OPEN) {
+            // 试探失败，重新打开
+            openedAt = now;
+            state.compareAndSet(HALF_OPEN, OPEN);
+            return;
+        }
+        currentBucket().failures.increment();
+        if (state.get() != CLOSED) {
+            return;
+        }
+        long[] counts = windowCounts(now);
+        long total = counts[0] + counts[1];
+        if (total >= requestVolumeThreshold && counts[1] * 100 >= total * errorThresholdPercentage) {
+            openedAt = now;
+            state.compareAndSet(CLOSED, OPEN);
+        }
+    }
+
+    public void onFallback() {
+        fallbacks.increment();
+    }
+
+    private Bucket currentBucket() {
+        long start = System.currentTimeMillis() / bucketMillis * bucketMillis;
+        int index = (int) (start / bucketMillis % buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.start == start) {
+                return bucket;
+            }
+            // 桶已过期，替换失败说明其他线程已经替换，重新读取
+            Bucket fresh = new Bucket(start);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    // 返回窗口内的 [成功数, 失败数]
+    private long[] windowCounts(long now) {
+        long windowStart = now - bucketMillis * buckets.length();
+        long[] counts = new long[2];
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.start > windowStart) {
+                counts[0] += bucket.successes.sum();
+                counts[1] += bucket.failures.sum();
+            }
+        }
+        return counts;
+    }
+
+    public Map<String, Object> metrics() {
+        long[] counts = windowCounts(System.currentTimeMillis());
+        long total = counts[0] + counts[1];
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("state", state.get() == CLOSED ? "CLOSED" : state.get() == OPEN ? "OPEN" : "HALF_OPEN");
+        metrics.put("concurrent", concurrent.get());
+        metrics.put("windowRequests", total);
+        metrics.put("windowErrorPercentage", total == 0 ? 0 : counts[1] * 100 / total);
+        metrics.put("successes", successes.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("shortCircuited", shortCircuited.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("fallbacks", fallbacks.sum());
+        return metrics;
+    }
+
+    private static class Bucket {
+        private final long start;
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        Bucket(long start) {
+            this.start = start;
+        }
+    }
+}
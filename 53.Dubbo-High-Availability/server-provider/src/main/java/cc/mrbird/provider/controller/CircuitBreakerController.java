@@ -0,0 +1,17 @@
+package cc.mrbird.provider.controller;
+
+import cc.mrbird.provider.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class CircuitBreakerController {
+
+    // 各方法的熔断器状态和调用统计
+    @GetMapping("/circuit-breaker/stats")
+    public Map<String, Object> stats() {
+        return CircuitBreakerRegistry.getInstance().metrics();
+    }
+}
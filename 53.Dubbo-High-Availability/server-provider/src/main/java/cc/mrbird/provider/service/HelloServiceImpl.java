@@ -1,9 +1,11 @@
 package cc.mrbird.provider.service;
 
 import cc.mrbird.common.api.HelloService;
+import cc.mrbird.common.api.dto.HelloPayload;
+import cc.mrbird.common.loadbalance.EwmaLoadBalance;
+import cc.mrbird.provider.circuitbreaker.CircuitBreaker;
 import com.alibaba.dubbo.config.annotation.Service;
-import com.alibaba.dubbo.rpc.cluster.loadbalance.RoundRobinLoadBalance;
-import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.TimeUnit;
@@ -11,19 +13,25 @@ import java.util.concurrent.TimeUnit;
 @Service(
         interfaceClass = HelloService.class,
         weight = 100,
-        loadbalance = RoundRobinLoadBalance.NAME)
+        loadbalance = EwmaLoadBalance.NAME)
 @Component
 public class HelloServiceImpl implements HelloService {
 
+    // 模拟响应慢的服务提供方，单位毫秒
+    @Value("${hello.delay:0}")
+    private long delay;
+
     @Override
-    @HystrixCommand(fallbackMethod = "defaultHello")
+    @CircuitBreaker(fallbackMethod = "defaultHello")
     public String hello(String message) {
         System.out.println("调用 cc.mrbird.provider.service.HelloServiceImpl#hello");
-        // try {
-        //     TimeUnit.SECONDS.sleep(2);
-        // } catch (InterruptedException e) {
-        //     e.printStackTrace();
-        // }
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
         String a = null;
         a.toString();
         return "hello," + message;
@@ -32,4 +40,10 @@ public class HelloServiceImpl implements HelloService {
     public String defaultHello(String message) {
         return "hello anonymous";
     }
+
+    @Override
+    public HelloPayload echo(HelloPayload payload) {
+        payload.setMessage("hello," + payload.getMessage());
+        return payload;
+    }
 }
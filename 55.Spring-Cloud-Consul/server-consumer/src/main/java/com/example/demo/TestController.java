@@ -1,17 +1,20 @@
 package com.example.demo;
 
+import com.example.demo.discovery.DiscoveryHttpClient;
+import com.example.demo.discovery.StubProviderLoadTest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,12 +28,9 @@ public class TestController {
     @Autowired
     private DiscoveryClient discoveryClient;
     @Autowired
-    private LoadBalancerClient loadBalancerClient;
-
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    // @Autowired
-    // private RestTemplate restTemplate;
+    private DiscoveryHttpClient discoveryHttpClient;
+    @Autowired
+    private StubProviderLoadTest stubProviderLoadTest;
 
     private static final String SERVER_ID = "server-provider";
 
@@ -43,10 +43,20 @@ public class TestController {
 
     @GetMapping("hello")
     public String hello() {
-        ServiceInstance instance = loadBalancerClient.choose(SERVER_ID);
-        String url = instance.getUri().toString() + "/hello";
-        loggr.info("remote server url：{}", url);
-        return restTemplate.getForObject(url, String.class);
+        loggr.debug("call {} /hello", SERVER_ID);
+        return discoveryHttpClient.get(SERVER_ID, "/hello", String.class);
+    }
+
+    @GetMapping("outliers")
+    public Map<String, Object> outliers() {
+        return discoveryHttpClient.getOutlierDetector().stats();
+    }
+
+    @GetMapping("testLoad")
+    public Map<String, Object> testLoad(@RequestParam(defaultValue = "5000") int requests,
+                                        @RequestParam(defaultValue = "20") int concurrency,
+                                        @RequestParam(defaultValue = "0.5") double errorRate) throws IOException, InterruptedException {
+        return stubProviderLoadTest.run(requests, concurrency, errorRate);
     }
 
     // @Bean
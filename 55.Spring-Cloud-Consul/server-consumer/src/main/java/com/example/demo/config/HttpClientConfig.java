@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import com.example.demo.discovery.ConsulInstanceCache;
+import com.example.demo.discovery.DiscoveryHttpClient;
+import com.example.demo.discovery.OutlierDetector;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author MrBird
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${consumer.http.max-total:200}")
+    private int maxTotal;
+    @Value("${consumer.http.max-per-instance:50}")
+    private int maxPerInstance;
+    @Value("${consumer.http.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+    @Value("${consumer.http.connect-timeout:1000}")
+    private int connectTimeout;
+    @Value("${consumer.http.read-timeout:3000}")
+    private int readTimeout;
+
+    @Value("${consumer.outlier.consecutive-failures:3}")
+    private int consecutiveFailures;
+    @Value("${consumer.outlier.base-ejection-millis:10000}")
+    private long baseEjectionMillis;
+    @Value("${consumer.outlier.max-ejection-millis:120000}")
+    private long maxEjectionMillis;
+
+    public static CloseableHttpClient pooledHttpClient(int maxTotal, int maxPerInstance, long keepAliveSeconds,
+                                                       int connectTimeout, int readTimeout) {
+        // 连接池按路由（即每个实例的host:port）分别维护keep-alive连接
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAliveSeconds, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerInstance);
+        connectionManager.setValidateAfterInactivity(1000);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(connectTimeout)
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeUnit.SECONDS.toMillis(keepAliveSeconds))
+                .evictIdleConnections(keepAliveSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient() {
+        return pooledHttpClient(maxTotal, maxPerInstance, keepAliveSeconds, connectTimeout, readTimeout);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public DiscoveryHttpClient discoveryHttpClient(ConsulInstanceCache instanceCache, RestTemplate restTemplate) {
+        return new DiscoveryHttpClient(instanceCache,
+                new OutlierDetector(consecutiveFailures, baseEjectionMillis, maxEjectionMillis), restTemplate);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.discovery;
+
+/**
+ * 刷新实例列表时预先拼接好请求地址前缀，请求时不再拼接URI
+ *
+ * @author MrBird
+ */
+public class CachedInstance {
+
+    private final String id;
+    private final String host;
+    private final int port;
+    private final String baseUrl;
+
+    public CachedInstance(String id, String host, int port) {
+        this.id = id;
+        this.host = host;
+        this.port = port;
+        this.baseUrl = "http://" + host + ":" + port;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.discovery;
+
+import com.ecwid.consul.v1.ConsulClient;
+import com.ecwid.consul.v1.QueryParams;
+import com.ecwid.consul.v1.Response;
+import com.ecwid.consul.v1.health.model.HealthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 本地缓存各服务通过健康检查的实例列表。
+ * 每个服务一个后台线程执行Consul阻塞查询（带上次的index），实例变化时立即返回并刷新缓存，
+ * 选择实例时只读缓存，不再访问Consul
+ *
+ * @author MrBird
+ */
+@Component
+public class ConsulInstanceCache implements Function<String, List<CachedInstance>>, DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ConsulClient consulClient;
+    // 阻塞查询的最长等待时间，需要小于ConsulClient的读超时
+    private final long waitSeconds;
+
+    private final ConcurrentMap<String, Watcher> watchers = new ConcurrentHashMap<>();
+
+    public ConsulInstanceCache(ConsulClient consulClient,
+                               @Value("${consumer.discovery.wait-seconds:30}") long waitSeconds) {
+        this.consulClient = consulClient;
+        this.waitSeconds = waitSeconds;
+    }
+
+    @Override
+    public List<CachedInstance> apply(String serviceName) {
+        return watchers.computeIfAbsent(serviceName, this::watch).instances;
+    }
+
+    private Watcher watch(String serviceName) {
+        Watcher watcher = new Watcher(serviceName);
+        // 第一次查询不阻塞，保证调用方立即拿到实例列表
+        watcher.poll();
+        Thread thread = new Thread(watcher, "consul-watch-" + serviceName);
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    @Override
+    public void destroy() {
+        watchers.values().forEach(watcher -> watcher.running = false);
+    }
+
+    private class Watcher implements Runnable {
+        private final String serviceName;
+        private volatile List<CachedInstance> instances = Collections.emptyList();
+        private volatile boolean running = true;
+        private long index;
+
+        Watcher(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    poll();
+                } catch (Exception e) {
+                    log.error("查询服务 " + serviceName + " 的实例失败", e);
+                    // 出错时重置index并稍后重试，避免频繁请求Consul
+                    index = 0;
+                    sleep(1000);
+                }
+            }
+        }
+
+        void poll() {
+            Response<List<HealthService>> response = consulClient.getHealthServices(serviceName, true,
+                    new QueryParams(waitSeconds, index));
+            Long consulIndex = response.getConsulIndex();
+            // index变小说明Consul重置了，需要从0开始
+            long next = consulIndex == null || consulIndex < index ? 0 : consulIndex;
+            if (next == index && index != 0) {
+                // 等待超时，实例没有变化
+                return;
+            }
+            index = next;
+            List<CachedInstance> latest = new ArrayList<>(response.getValue().size());
+            for (HealthService healthService : response.getValue()) {
+                HealthService.Service service = healthService.getService();
+                String host = StringUtils.hasText(service.getAddress()) ? service.getAddress()
+                        : healthService.getNode().getAddress();
+                latest.add(new CachedInstance(service.getId(), host, service.getPort()));
+            }
+            instances = Collections.unmodifiableList(latest);
+            log.info("服务 {} 的实例列表已刷新，可用实例数：{}", serviceName, latest.size());
+        }
+
+        private void sleep(long millis) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 从本地缓存的实例列表中轮询选择未被摘除的实例，通过连接池发送请求，
+ * 连接失败、超时和5xx反馈给 OutlierDetector
+ *
+ * @author MrBird
+ */
+public class DiscoveryHttpClient {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final Function<String, List<CachedInstance>> instanceSource;
+    private final OutlierDetector outlierDetector;
+    private final RestTemplate restTemplate;
+    private final AtomicInteger position = new AtomicInteger();
+
+    public DiscoveryHttpClient(Function<String, List<CachedInstance>> instanceSource,
+                               OutlierDetector outlierDetector, RestTemplate restTemplate) {
+        this.instanceSource = instanceSource;
+        this.outlierDetector = outlierDetector;
+        this.restTemplate = restTemplate;
+    }
+
+    public <T> T get(String serviceName, String path, Class<T> responseType) {
+        CachedInstance instance = choose(serviceName);
+        try {
+            T result = restTemplate.getForObject(instance.getBaseUrl() + path, responseType);
+            outlierDetector.onSuccess(instance);
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            if (outlierDetector.onFailure(instance)) {
+                log.warn("实例 {}（{}）连续失败，暂时摘除", instance.getId(), instance.getBaseUrl());
+            }
+            throw e;
+        }
+    }
+
+    public CachedInstance choose(String serviceName) {
+        List<CachedInstance> instances = instanceSource.apply(serviceName);
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("服务 " + serviceName + " 没有可用的实例");
+        }
+        int start = Math.abs(position.getAndIncrement() % instances.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < instances.size(); i++) {
+            CachedInstance instance = instances.get((start + i) % instances.size());
+            if (!outlierDetector.isEjected(instance, now)) {
+                return instance;
+            }
+        }
+        // 全部被摘除时不再摘除，避免一个都选不到
+        return instances.get(start);
+    }
+
+    public OutlierDetector getOutlierDetector() {
+        return outlierDetector;
+    }
+}
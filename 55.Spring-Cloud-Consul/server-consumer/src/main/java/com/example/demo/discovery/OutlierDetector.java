@@ -0,0 +1,91 @@
+package com.example.demo.discovery;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异常实例摘除：实例连续失败达到阈值后摘除一段时间，再次被摘除时时间加倍，成功后恢复
+ *
+ * @author MrBird
+ */
+public class OutlierDetector {
+
+    private final int consecutiveFailures;
+    private final long baseEjectionMillis;
+    private final long maxEjectionMillis;
+
+    private final ConcurrentMap<String, State> states = new ConcurrentHashMap<>();
+
+    public OutlierDetector(int consecutiveFailures, long baseEjectionMillis, long maxEjectionMillis) {
+        this.consecutiveFailures = consecutiveFailures;
+        this.baseEjectionMillis = baseEjectionMillis;
+        this.maxEjectionMillis = maxEjectionMillis;
+    }
+
+    public boolean isEjected(CachedInstance instance, long now) {
+        State state = states.get(instance.getId());
+        return state != null && state.ejectedUntil > now;
+    }
+
+    public void onSuccess(CachedInstance instance) {
+        State state = states.get(instance.getId());
+        if (state != null) {
+            state.onSuccess();
+        }
+    }
+
+    /**
+     * 返回实例是否因本次失败被摘除
+     */
+    public boolean onFailure(CachedInstance instance) {
+        return states.computeIfAbsent(instance.getId(), id -> new State())
+                .onFailure(consecutiveFailures, baseEjectionMillis, maxEjectionMillis);
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        states.forEach((id, state) -> {
+            Map<String, Object> instanceStats = new LinkedHashMap<>();
+            instanceStats.put("consecutiveFailures", state.failures.get());
+            instanceStats.put("ejections", state.totalEjections.get());
+            instanceStats.put("ejectedMillis", Math.max(0, state.ejectedUntil - now));
+            stats.put(id, instanceStats);
+        });
+        return stats;
+    }
+
+    private static class State {
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger totalEjections = new AtomicInteger();
+        private int ejections;
+        private volatile long ejectedUntil;
+
+        void onSuccess() {
+            failures.set(0);
+            synchronized (this) {
+                ejections = 0;
+            }
+        }
+
+        boolean onFailure(int threshold, long baseMillis, long maxMillis) {
+            if (failures.incrementAndGet() < threshold) {
+                return false;
+            }
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (ejectedUntil > now) {
+                    return false;
+                }
+                failures.set(0);
+                ejectedUntil = now + Math.min(maxMillis, baseMillis << Math.min(ejections, 16));
+                ejections++;
+                totalEjections.incrementAndGet();
+                return true;
+            }
+        }
+    }
+}
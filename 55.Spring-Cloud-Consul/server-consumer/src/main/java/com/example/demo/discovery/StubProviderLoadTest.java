@@ -0,0 +1,140 @@
+package com.example.demo.discovery;
+
+import com.example.demo.config.HttpClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 在本机启动两个模拟的服务提供方（第二个按指定比例返回500），不经过Consul，
+ * 用 DiscoveryHttpClient 压测，对比开启和关闭异常实例摘除时的成功率和延迟
+ *
+ * @author MrBird
+ */
+@Component
+public class StubProviderLoadTest {
+
+    private static final String SERVICE_NAME = "stub-provider";
+    // 模拟提供方的处理时间
+    private static final long STUB_MILLIS = 5;
+
+    /**
+     * @param requests    总请求数
+     * @param concurrency 并发的调用方数量
+     * @param errorRate   第二个提供方返回500的比例，0~1
+     */
+    public Map<String, Object> run(int requests, int concurrency, double errorRate) throws IOException, InterruptedException {
+        ExecutorService stubExecutor = Executors.newFixedThreadPool(32);
+        HttpServer healthy = startStub(0, stubExecutor);
+        HttpServer faulty = startStub(errorRate, stubExecutor);
+        try {
+            List<CachedInstance> instances = Collections.unmodifiableList(Arrays.asList(
+                    new CachedInstance("stub-0", "127.0.0.1", healthy.getAddress().getPort()),
+                    new CachedInstance("stub-1", "127.0.0.1", faulty.getAddress().getPort())));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", requests);
+            result.put("concurrency", concurrency);
+            result.put("errorRate", errorRate);
+            result.put("outlierEjection", simulate(instances, new OutlierDetector(3, 1000, 10000), requests, concurrency));
+            result.put("noEjection", simulate(instances, new OutlierDetector(Integer.MAX_VALUE, 1000, 10000), requests, concurrency));
+            return result;
+        } finally {
+            healthy.stop(0);
+            faulty.stop(0);
+            stubExecutor.shutdown();
+        }
+    }
+
+    private Map<String, Object> simulate(List<CachedInstance> instances, OutlierDetector outlierDetector,
+                                         int requests, int concurrency) throws IOException, InterruptedException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        try (CloseableHttpClient httpClient = HttpClientConfig.pooledHttpClient(concurrency * 2, concurrency, 30, 1000, 3000)) {
+            DiscoveryHttpClient client = new DiscoveryHttpClient(serviceName -> instances, outlierDetector,
+                    new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+            ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+            CountDownLatch done = new CountDownLatch(requests);
+            AtomicInteger sequence = new AtomicInteger();
+            LongAdder errors = new LongAdder();
+            long[] latencies = new long[requests];
+            Map<String, LongAdder> distribution = new ConcurrentHashMap<>();
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) {
+                callers.execute(() -> {
+                    int index;
+                    while ((index = sequence.getAndIncrement()) < requests) {
+                        long start = System.nanoTime();
+                        try {
+                            String body = client.get(SERVICE_NAME, "/hello", String.class);
+                            distribution.computeIfAbsent(body, key -> new LongAdder()).increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies[index] = System.nanoTime() - start;
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            long elapsed = System.nanoTime() - begin;
+            callers.shutdown();
+
+            Arrays.sort(latencies);
+            result.put("errors", errors.sum());
+            result.put("p50Ms", percentile(latencies, 0.5));
+            result.put("p99Ms", percentile(latencies, 0.99));
+            result.put("requestsPerSecond", elapsed == 0 ? 0 : requests * 1_000_000_000L / elapsed);
+            Map<String, Long> perInstance = new LinkedHashMap<>();
+            distribution.forEach((body, count) -> perInstance.put(body, count.sum()));
+            result.put("successesPerInstance", perInstance);
+            result.put("outliers", outlierDetector.stats());
+        }
+        return result;
+    }
+
+    private HttpServer startStub(double errorRate, ExecutorService executor) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        String name = "hello from stub on port " + server.getAddress().getPort();
+        server.createContext("/hello", exchange -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(STUB_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = ThreadLocalRandom.current().nextDouble() < errorRate;
+            byte[] body = (fail ? "error" : name).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(fail ? 500 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,23 @@
+package cc.mrbird.batch.configure;
+
+import cc.mrbird.batch.executor.FlowTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author MrBird
+ */
+@Configuration
+public class FlowExecutorConfigure {
+
+    /**
+     * 所有split任务共享的flow执行线程池
+     */
+    @Bean
+    public FlowTaskExecutor flowTaskExecutor(@Value("${batch.flow.pool-size:8}") int poolSize,
+                                             @Value("${batch.flow.queue-capacity:100}") int queueCapacity,
+                                             @Value("${batch.flow.virtual-threads:false}") boolean virtualThreads) {
+        return new FlowTaskExecutor(poolSize, queueCapacity, virtualThreads);
+    }
+}
@@ -0,0 +1,143 @@
+package cc.mrbird.batch.executor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 所有split任务共享的并行flow执行线程池。
+ * 线程数和等待队列都有上限，并可通过forJob为每个任务设置同时运行的flow数，
+ * 替代每次执行都新建线程的SimpleAsyncTaskExecutor
+ *
+ * @author MrBird
+ */
+public class FlowTaskExecutor implements TaskExecutor, DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ExecutorService delegate;
+    // 虚拟线程模式下用信号量限制同时运行的flow数
+    private final Semaphore virtualThreadPermits;
+    private final Map<String, Semaphore> jobPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger activeFlows = new AtomicInteger();
+    private final Timer queueWait;
+
+    /**
+     * @param poolSize       线程数（虚拟线程模式下为同时运行的flow数）
+     * @param queueCapacity  等待队列长度，队列满时拒绝提交
+     * @param virtualThreads 是否使用虚拟线程（需要运行在JDK 21+，否则退回普通线程池）
+     */
+    public FlowTaskExecutor(int poolSize, int queueCapacity, boolean virtualThreads) {
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            this.delegate = virtualExecutor;
+            this.virtualThreadPermits = new Semaphore(poolSize);
+        } else {
+            this.delegate = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("flow-"));
+            this.virtualThreadPermits = null;
+        }
+        this.queueWait = Timer.builder("batch.flow.queue.wait")
+                .tags(Tags.of("job", "none"))
+                .description("split flow从提交到开始执行的等待时间")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("batch.flow.active", activeFlows, AtomicInteger::get)
+                .description("正在执行的split flow数")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 返回限制了单个任务并发flow数的执行器，同名任务的多次执行共享这个限制
+     */
+    public TaskExecutor forJob(String jobName, int maxConcurrentFlows) {
+        Semaphore permits = jobPermits.computeIfAbsent(jobName, name -> new Semaphore(maxConcurrentFlows));
+        Timer jobQueueWait = Timer.builder("batch.flow.queue.wait")
+                .tags(Tags.of("job", jobName))
+                .register(Metrics.globalRegistry);
+        return task -> {
+            // 超过单个任务的并发数时，阻塞的是提交flow的任务线程，而不是线程池中的线程
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskRejectedException("等待flow执行许可时被中断: " + jobName, e);
+            }
+            try {
+                submit(task, jobQueueWait, permits);
+            } catch (TaskRejectedException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(task, queueWait, null);
+    }
+
+    private void submit(Runnable task, Timer waitTimer, Semaphore jobPermit) {
+        long submitted = System.nanoTime();
+        try {
+            delegate.execute(() -> {
+                try {
+                    if (virtualThreadPermits != null) {
+                        virtualThreadPermits.acquireUninterruptibly();
+                    }
+                    waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    activeFlows.incrementAndGet();
+                    try {
+                        task.run();
+                    } finally {
+                        activeFlows.decrementAndGet();
+                        if (virtualThreadPermits != null) {
+                            virtualThreadPermits.release();
+                        }
+                    }
+                } finally {
+                    if (jobPermit != null) {
+                        jobPermit.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new TaskRejectedException("flow执行队列已满", e);
+        }
+    }
+
+    public int getActiveFlows() {
+        return activeFlows.get();
+    }
+
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("当前JDK不支持虚拟线程，使用普通线程池");
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        delegate.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package cc.mrbird.batch.job;
 
+import cc.mrbird.batch.executor.FlowTaskExecutor;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
@@ -9,7 +10,6 @@ import org.springframework.batch.core.job.flow.Flow;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 
 /**
@@ -22,12 +22,15 @@ public class SplitJobDemo {
     private JobBuilderFactory jobBuilderFactory;
     @Autowired
     private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private FlowTaskExecutor flowTaskExecutor;
 
     @Bean
     public Job splitJob() {
         return jobBuilderFactory.get("splitJob")
                 .start(flow1())
-                .split(new SimpleAsyncTaskExecutor()).add(flow2())
+                // 使用共享的有界线程池，splitJob最多同时运行2个flow
+                .split(flowTaskExecutor.forJob("splitJob", 2)).add(flow2())
                 .end()
                 .build();
 
@@ -0,0 +1,128 @@
+package cc.mrbird.batch.job;
+
+import cc.mrbird.batch.entity.TestData;
+import cc.mrbird.batch.writer.MultiRowInsertItemWriter;
+import cc.mrbird.batch.writer.StatementSizeCompletionPolicy;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.job.builder.SimpleJobBuilder;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 使用 MultiRowInsertItemWriter 写入数据库，并对比不同 chunk 大小下的数据库往返次数和写入速率，
+ * 最后一个 step 按 max_allowed_packet 和估算的单行大小确定 chunk 大小
+ *
+ * @author MrBird
+ */
+@Component
+public class MultiRowInsertItemWriterDemo {
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    // 依次测试的 chunk 大小
+    @Value("${batch.writer.chunk-sizes:10,100,1000}")
+    private int[] chunkSizes;
+    // 每个 step 写入的数据量
+    @Value("${batch.writer.total-rows:10000}")
+    private int totalRows;
+    // 开启 upsert，重复运行时主键冲突改为更新
+    @Value("${batch.writer.upsert:true}")
+    private boolean upsert;
+    // 估算的单行数据在 sql 中占用的字节数
+    @Value("${batch.writer.estimated-row-bytes:64}")
+    private int estimatedRowBytes;
+    // mysql max_allowed_packet，5.7默认4M
+    @Value("${batch.writer.max-allowed-packet:4194304}")
+    private long maxAllowedPacket;
+    // 单条 sql 最多包含的行数
+    @Value("${batch.writer.max-rows-per-statement:500}")
+    private int maxRowsPerStatement;
+    // 每个 chunk 包含的语句数
+    @Value("${batch.writer.statements-per-chunk:4}")
+    private int statementsPerChunk;
+
+    @Bean
+    public Job multiRowInsertItemWriterJob() {
+        SimpleJobBuilder builder = jobBuilderFactory.get("multiRowInsertItemWriterJob")
+                .start(step(chunkSizes[0]));
+        for (int i = 1; i < chunkSizes.length; i++) {
+            builder.next(step(chunkSizes[i]));
+        }
+        return builder.next(sizeTunedStep()).build();
+    }
+
+    private Step step(int chunkSize) {
+        return step("multiRowInsertStep-" + chunkSize, new SimpleCompletionPolicy(chunkSize), multiRowInsertItemWriter(maxRowsPerStatement));
+    }
+
+    private Step sizeTunedStep() {
+        StatementSizeCompletionPolicy policy = new StatementSizeCompletionPolicy(
+                estimatedRowBytes, maxAllowedPacket, maxRowsPerStatement, statementsPerChunk);
+        return step("multiRowInsertStep-tuned", policy, multiRowInsertItemWriter(policy.getRowsPerStatement()));
+    }
+
+    private Step step(String name, SimpleCompletionPolicy completionPolicy, MultiRowInsertItemWriter writer) {
+        int chunkSize = completionPolicy.getChunkSize();
+        return stepBuilderFactory.get(name)
+                .<TestData, TestData>chunk(completionPolicy)
+                .reader(generatedReader())
+                .writer(writer)
+                .listener(new StepExecutionListener() {
+                    @Override
+                    public void beforeStep(StepExecution stepExecution) {
+                    }
+
+                    @Override
+                    public ExitStatus afterStep(StepExecution stepExecution) {
+                        System.out.println("chunk size: " + chunkSize
+                                + ", 写入行数: " + writer.getRows()
+                                + ", 数据库往返次数: " + writer.getRoundTrips()
+                                + ", 写入速率: " + writer.rowsPerSecond() + " rows/sec");
+                        return stepExecution.getExitStatus();
+                    }
+                })
+                .build();
+    }
+
+    private MultiRowInsertItemWriter multiRowInsertItemWriter(int rowsPerStatement) {
+        MultiRowInsertItemWriter writer = new MultiRowInsertItemWriter();
+        writer.setDataSource(dataSource); // 设置数据源
+        writer.setUpsert(upsert); // 主键冲突时更新
+        writer.setMaxRowsPerStatement(rowsPerStatement); // 单条 sql 最多包含的行数
+        writer.afterPropertiesSet();
+        return writer;
+    }
+
+    // 生成测试数据，每个 step 使用独立的 reader
+    private ListItemReader<TestData> generatedReader() {
+        List<TestData> data = new ArrayList<>(totalRows);
+        for (int i = 1; i <= totalRows; i++) {
+            TestData testData = new TestData();
+            testData.setId(i);
+            testData.setField1(i + "1");
+            testData.setField2(i + "2");
+            testData.setField3(i + "3");
+            data.add(testData);
+        }
+        return new ListItemReader<>(data);
+    }
+}
@@ -0,0 +1,108 @@
+package cc.mrbird.batch.writer;
+
+import cc.mrbird.batch.entity.TestData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 将一个 chunk 的 TestData 改写为多行 insert ... values (...),(...) 语句写入数据库，
+ * 直接绑定 TestData 字段，不再通过 BeanPropertyItemSqlParameterSourceProvider 反射取值
+ *
+ * @author MrBird
+ */
+public class MultiRowInsertItemWriter implements ItemWriter<TestData>, InitializingBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private static final String INSERT_SQL = "insert into TEST(id,field1,field2,field3) values ";
+    private static final String ROW_PLACEHOLDER = "(?,?,?,?)";
+    private static final String UPSERT_SQL = " on duplicate key update field1=values(field1),field2=values(field2),field3=values(field3)";
+
+    private JdbcTemplate jdbcTemplate;
+    // 是否开启 upsert 模式（主键冲突时更新，而不是报错）
+    private boolean upsert;
+    // 单条 sql 最多包含的行数，避免超过 mysql max_allowed_packet
+    private int maxRowsPerStatement = 500;
+
+    // 统计数据库往返次数和写入行数
+    private long roundTrips;
+    private long rows;
+    private long elapsedNanos;
+
+    public void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void setUpsert(boolean upsert) {
+        this.upsert = upsert;
+    }
+
+    public void setMaxRowsPerStatement(int maxRowsPerStatement) {
+        this.maxRowsPerStatement = maxRowsPerStatement;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Assert.notNull(jdbcTemplate, "DataSource不能为空");
+        Assert.isTrue(maxRowsPerStatement > 0, "maxRowsPerStatement必须大于0");
+    }
+
+    @Override
+    public void write(List<? extends TestData> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (int from = 0; from < items.size(); from += maxRowsPerStatement) {
+            List<? extends TestData> rowsOfStatement = items.subList(from, Math.min(from + maxRowsPerStatement, items.size()));
+            jdbcTemplate.update(buildSql(rowsOfStatement.size()), ps -> {
+                int index = 1;
+                for (TestData data : rowsOfStatement) {
+                    ps.setInt(index++, data.getId());
+                    ps.setString(index++, data.getField1());
+                    ps.setString(index++, data.getField2());
+                    ps.setString(index++, data.getField3());
+                }
+            });
+            roundTrips++;
+        }
+        rows += items.size();
+        elapsedNanos += System.nanoTime() - start;
+        log.debug("chunk size: {}, 数据库往返次数: {}, 累计写入行数: {}, 写入速率: {} rows/sec",
+                items.size(), roundTrips, rows, rowsPerSecond());
+    }
+
+    private String buildSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + rowCount * (ROW_PLACEHOLDER.length() + 1) + UPSERT_SQL.length());
+        sql.append(INSERT_SQL);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        if (upsert) {
+            sql.append(UPSERT_SQL);
+        }
+        return sql.toString();
+    }
+
+    public long getRoundTrips() {
+        return roundTrips;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,43 @@
+package cc.mrbird.batch.writer;
+
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.util.Assert;
+
+/**
+ * 按多行 insert 语句的大小确定 chunk 大小：单条语句的行数同时受 maxRowsPerStatement 和
+ * mysql max_allowed_packet（按估算的单行字节数换算）限制，chunk 大小取单条语句行数的整数倍，
+ * 使 MultiRowInsertItemWriter 拆出的每条语句都是满的
+ *
+ * @author MrBird
+ */
+public class StatementSizeCompletionPolicy extends SimpleCompletionPolicy {
+
+    // insert 语句本身和 upsert 子句预留的字节数
+    private static final int STATEMENT_OVERHEAD_BYTES = 256;
+
+    private final int rowsPerStatement;
+
+    /**
+     * @param estimatedRowBytes   估算的单行数据在 sql 中占用的字节数
+     * @param maxAllowedPacket    mysql max_allowed_packet
+     * @param maxRowsPerStatement 单条 sql 最多包含的行数
+     * @param statementsPerChunk  每个 chunk 包含的语句数
+     */
+    public StatementSizeCompletionPolicy(int estimatedRowBytes, long maxAllowedPacket,
+                                         int maxRowsPerStatement, int statementsPerChunk) {
+        Assert.isTrue(estimatedRowBytes > 0, "estimatedRowBytes必须大于0");
+        Assert.isTrue(maxAllowedPacket > STATEMENT_OVERHEAD_BYTES + estimatedRowBytes, "maxAllowedPacket过小");
+        Assert.isTrue(maxRowsPerStatement > 0, "maxRowsPerStatement必须大于0");
+        Assert.isTrue(statementsPerChunk > 0, "statementsPerChunk必须大于0");
+        long rowsByPacket = (maxAllowedPacket - STATEMENT_OVERHEAD_BYTES) / estimatedRowBytes;
+        this.rowsPerStatement = (int) Math.min(maxRowsPerStatement, rowsByPacket);
+        setChunkSize(rowsPerStatement * statementsPerChunk);
+    }
+
+    /**
+     * writer 需要使用相同的单条语句行数
+     */
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+}
@@ -0,0 +1,99 @@
+package cc.mrbird.batch.entity.job;
+
+import cc.mrbird.batch.entity.TestData;
+import cc.mrbird.batch.processor.TestDataFilterItemProcessor;
+import cc.mrbird.batch.processor.TestDataTransformItemPorcessor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author MrBird
+ */
+@Component
+public class AsyncItemProcessorDemo {
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private ListItemReader<TestData> simpleReader;
+    @Autowired
+    private TestDataFilterItemProcessor testDataFilterItemProcessor;
+    @Autowired
+    private TestDataTransformItemPorcessor testDataTransformItemPorcessor;
+
+    @Bean
+    public Job asyncItemProcessorJob() throws Exception {
+        return jobBuilderFactory.get("asyncItemProcessorJob")
+                .start(step())
+                .build();
+    }
+
+    private Step step() throws Exception {
+        return stepBuilderFactory.get("step")
+                // processor输出的是Future，由AsyncItemWriter按读取顺序等待结果后再写出
+                .<TestData, Future<TestData>>chunk(2)
+                .reader(simpleReader)
+                .processor(asyncItemProcessor())
+                .writer(asyncItemWriter())
+                // 单条数据处理失败时，异常在writer等待Future时抛出，交给跳过策略处理
+                .faultTolerant()
+                .skip(Exception.class)
+                .skipLimit(10)
+                .build();
+    }
+
+    // 有界线程池，队列满时由chunk线程自己执行，避免无限堆积
+    private ThreadPoolTaskExecutor asyncItemProcessorExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("async-processor-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // AsyncItemProcessor将每条数据交给线程池处理，立即返回Future
+    private AsyncItemProcessor<TestData, TestData> asyncItemProcessor() throws Exception {
+        AsyncItemProcessor<TestData, TestData> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(compositeItemProcessor());
+        processor.setTaskExecutor(asyncItemProcessorExecutor());
+        processor.afterPropertiesSet();
+        return processor;
+    }
+
+    // AsyncItemWriter按顺序取出Future的结果，被过滤(null)的数据不会写出
+    private AsyncItemWriter<TestData> asyncItemWriter() throws Exception {
+        AsyncItemWriter<TestData> writer = new AsyncItemWriter<>();
+        writer.setDelegate(list -> list.forEach(System.out::println));
+        writer.afterPropertiesSet();
+        return writer;
+    }
+
+    private CompositeItemProcessor<TestData, TestData> compositeItemProcessor() {
+        CompositeItemProcessor<TestData, TestData> processor = new CompositeItemProcessor<>();
+        List<ItemProcessor<TestData, TestData>> processors = Arrays.asList(testDataFilterItemProcessor, testDataTransformItemPorcessor);
+        processor.setDelegates(processors);
+        return processor;
+    }
+}
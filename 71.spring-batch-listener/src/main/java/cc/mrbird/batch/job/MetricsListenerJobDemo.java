@@ -0,0 +1,58 @@
+package cc.mrbird.batch.job;
+
+import cc.mrbird.batch.metrics.BatchMetricsListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author MrBird
+ */
+@Component
+public class MetricsListenerJobDemo {
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private BatchMetricsListener batchMetricsListener;
+
+    @Bean
+    public Job metricsListenerJob() {
+        return jobBuilderFactory.get("metricsListenerJob")
+                .start(step())
+                .build();
+    }
+
+    private Step step() {
+        return stepBuilderFactory.get("step")
+                .<String, String>chunk(2)
+                .faultTolerant()
+                .listener(batchMetricsListener.retryListener())
+                // 基于注解的监听器，同时监听step、chunk、read、process和write
+                .listener((Object) batchMetricsListener)
+                .reader(reader())
+                .processor(processor())
+                .writer(list -> list.forEach(System.out::println))
+                .build();
+    }
+
+    private ItemReader<String> reader() {
+        List<String> data = Arrays.asList("java", "c++", "javascript", "python");
+        return new simpleReader(data);
+    }
+
+    private ItemProcessor<String, String> processor() {
+        return item -> item + " language";
+    }
+}
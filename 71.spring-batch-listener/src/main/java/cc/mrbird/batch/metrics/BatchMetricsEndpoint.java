@@ -0,0 +1,34 @@
+package cc.mrbird.batch.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 查看每个step的实时指标：GET /actuator/batchsteps 或 /actuator/batchsteps/{job.step}
+ *
+ * @author MrBird
+ */
+@Component
+@Endpoint(id = "batchsteps")
+public class BatchMetricsEndpoint {
+
+    private final BatchMetricsListener batchMetricsListener;
+
+    public BatchMetricsEndpoint(BatchMetricsListener batchMetricsListener) {
+        this.batchMetricsListener = batchMetricsListener;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> steps() {
+        return batchMetricsListener.snapshot();
+    }
+
+    @ReadOperation
+    public Map<String, Object> step(@Selector String name) {
+        return batchMetricsListener.snapshot().get(name);
+    }
+}
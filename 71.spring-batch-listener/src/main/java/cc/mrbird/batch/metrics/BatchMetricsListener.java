@@ -0,0 +1,264 @@
+package cc.mrbird.batch.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.annotation.AfterChunk;
+import org.springframework.batch.core.annotation.AfterChunkError;
+import org.springframework.batch.core.annotation.AfterProcess;
+import org.springframework.batch.core.annotation.AfterRead;
+import org.springframework.batch.core.annotation.AfterStep;
+import org.springframework.batch.core.annotation.AfterWrite;
+import org.springframework.batch.core.annotation.BeforeChunk;
+import org.springframework.batch.core.annotation.BeforeProcess;
+import org.springframework.batch.core.annotation.BeforeRead;
+import org.springframework.batch.core.annotation.BeforeStep;
+import org.springframework.batch.core.annotation.BeforeWrite;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录每个chunk的读、处理、写耗时和提交耗时，以及吞吐量、跳过和重试次数，
+ * 通过Micrometer导出，并由 /actuator/batchsteps 查看每个step的实时数据
+ *
+ * @author MrBird
+ */
+@Component
+public class BatchMetricsListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, StepMetrics> steps = new ConcurrentHashMap<>();
+    // chunk在当前线程中执行，使用ThreadLocal记录本chunk内的耗时
+    private final ThreadLocal<ChunkTimings> chunkTimings = ThreadLocal.withInitial(ChunkTimings::new);
+
+    public BatchMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @BeforeStep
+    public void beforeStep(StepExecution stepExecution) {
+        StepMetrics metrics = new StepMetrics(meterRegistry,
+                stepExecution.getJobExecution().getJobInstance().getJobName(), stepExecution.getStepName());
+        steps.put(metrics.getKey(), metrics);
+    }
+
+    @AfterStep
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        StepMetrics metrics = steps.get(key(stepExecution));
+        if (metrics != null) {
+            metrics.finish(stepExecution);
+        }
+        chunkTimings.remove();
+        return stepExecution.getExitStatus();
+    }
+
+    @BeforeChunk
+    public void beforeChunk(ChunkContext context) {
+        chunkTimings.get().reset();
+    }
+
+    @AfterChunk
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        StepMetrics metrics = steps.get(key(stepExecution));
+        if (metrics != null) {
+            // afterChunk在事务提交之后回调，与写完成的时间差即为提交耗时
+            metrics.recordChunk(chunkTimings.get(), System.nanoTime(), stepExecution);
+        }
+    }
+
+    @AfterChunkError
+    public void afterChunkError(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        StepMetrics metrics = steps.get(key(stepExecution));
+        if (metrics != null) {
+            metrics.recordRollback(stepExecution);
+        }
+    }
+
+    @BeforeRead
+    public void beforeRead() {
+        chunkTimings.get().start = System.nanoTime();
+    }
+
+    @AfterRead
+    public void afterRead(Object item) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.readNanos += System.nanoTime() - timings.start;
+    }
+
+    @BeforeProcess
+    public void beforeProcess(Object item) {
+        chunkTimings.get().start = System.nanoTime();
+    }
+
+    @AfterProcess
+    public void afterProcess(Object item, Object result) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.processNanos += System.nanoTime() - timings.start;
+    }
+
+    @BeforeWrite
+    public void beforeWrite(List<?> items) {
+        chunkTimings.get().start = System.nanoTime();
+    }
+
+    @AfterWrite
+    public void afterWrite(List<?> items) {
+        ChunkTimings timings = chunkTimings.get();
+        timings.writeEnd = System.nanoTime();
+        timings.writeNanos += timings.writeEnd - timings.start;
+        timings.items += items.size();
+    }
+
+    // 重试监听器，需通过faultTolerant()之后的listener(RetryListener)注册
+    public RetryListenerSupport retryListener() {
+        return new RetryListenerSupport() {
+            @Override
+            public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                StepContext stepContext = StepSynchronizationManager.getContext();
+                if (stepContext == null) {
+                    return;
+                }
+                StepMetrics metrics = steps.get(key(stepContext.getStepExecution()));
+                if (metrics != null) {
+                    metrics.retries.increment();
+                }
+            }
+        };
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new ConcurrentHashMap<>();
+        steps.forEach((key, metrics) -> result.put(key, metrics.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static String key(StepExecution stepExecution) {
+        return stepExecution.getJobExecution().getJobInstance().getJobName() + "." + stepExecution.getStepName();
+    }
+
+    static class ChunkTimings {
+        long start;
+        long readNanos;
+        long processNanos;
+        long writeNanos;
+        long writeEnd;
+        int items;
+
+        void reset() {
+            start = 0;
+            readNanos = 0;
+            processNanos = 0;
+            writeNanos = 0;
+            writeEnd = 0;
+            items = 0;
+        }
+    }
+
+    static class StepMetrics {
+        private final String key;
+        private final long startTime = System.nanoTime();
+        private volatile long endTime;
+        private volatile String status = "STARTED";
+
+        private final Timer read;
+        private final Timer process;
+        private final Timer write;
+        private final Timer commit;
+        private final Counter items;
+        private final Counter skips;
+        private final Counter rollbacks;
+        private final Counter retries;
+        // StepExecution中的跳过数为累计值，记录上一次的值用于计算增量
+        private int lastSkipCount;
+
+        StepMetrics(MeterRegistry registry, String job, String step) {
+            this.key = job + "." + step;
+            this.read = timer(registry, "batch.chunk.read", job, step);
+            this.process = timer(registry, "batch.chunk.process", job, step);
+            this.write = timer(registry, "batch.chunk.write", job, step);
+            this.commit = timer(registry, "batch.chunk.commit", job, step);
+            this.items = Counter.builder("batch.step.items").tag("job", job).tag("step", step).register(registry);
+            this.skips = Counter.builder("batch.step.skips").tag("job", job).tag("step", step).register(registry);
+            this.rollbacks = Counter.builder("batch.step.rollbacks").tag("job", job).tag("step", step).register(registry);
+            this.retries = Counter.builder("batch.step.retries").tag("job", job).tag("step", step).register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String name, String job, String step) {
+            return Timer.builder(name)
+                    .tag("job", job)
+                    .tag("step", step)
+                    .publishPercentiles(0.5, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        void recordChunk(ChunkTimings timings, long now, StepExecution stepExecution) {
+            read.record(timings.readNanos, TimeUnit.NANOSECONDS);
+            process.record(timings.processNanos, TimeUnit.NANOSECONDS);
+            write.record(timings.writeNanos, TimeUnit.NANOSECONDS);
+            if (timings.writeEnd > 0) {
+                commit.record(now - timings.writeEnd, TimeUnit.NANOSECONDS);
+            }
+            items.increment(timings.items);
+            recordSkips(stepExecution);
+        }
+
+        void recordRollback(StepExecution stepExecution) {
+            rollbacks.increment();
+            recordSkips(stepExecution);
+        }
+
+        void finish(StepExecution stepExecution) {
+            recordSkips(stepExecution);
+            endTime = System.nanoTime();
+            status = stepExecution.getExitStatus().getExitCode();
+        }
+
+        private synchronized void recordSkips(StepExecution stepExecution) {
+            int skipCount = stepExecution.getSkipCount();
+            if (skipCount > lastSkipCount) {
+                skips.increment(skipCount - lastSkipCount);
+                lastSkipCount = skipCount;
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long end = endTime == 0 ? System.nanoTime() : endTime;
+            double seconds = (end - startTime) / 1_000_000_000.0;
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("status", status);
+            view.put("chunks", commit.count());
+            view.put("items", (long) items.count());
+            view.put("itemsPerSecond", seconds > 0 ? items.count() / seconds : 0);
+            view.put("skips", (long) skips.count());
+            view.put("retries", (long) retries.count());
+            view.put("rollbacks", (long) rollbacks.count());
+            view.put("readMeanMs", read.mean(TimeUnit.MILLISECONDS));
+            view.put("processMeanMs", process.mean(TimeUnit.MILLISECONDS));
+            view.put("writeMeanMs", write.mean(TimeUnit.MILLISECONDS));
+            view.put("commitMeanMs", commit.mean(TimeUnit.MILLISECONDS));
+            view.put("commitMaxMs", commit.max(TimeUnit.MILLISECONDS));
+            return view;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package cc.mrbird.batch.checkpoint;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStream;
+
+/**
+ * 记录已处理数量的processor，状态随chunk提交保存到ExecutionContext，需通过stream()和listener()注册
+ *
+ * @author MrBird
+ */
+public class CheckpointItemProcessor<I, O> implements ItemProcessor<I, O>, ItemStream, ChunkListener {
+
+    private static final String PROCESSED_COUNT = "checkpoint.processor.count";
+
+    private final ItemProcessor<I, O> delegate;
+    private long processed;
+    // 当前chunk中处理的数量
+    private long processedInChunk;
+
+    public CheckpointItemProcessor(ItemProcessor<I, O> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public O process(I item) throws Exception {
+        O result = delegate.process(item);
+        processedInChunk++;
+        return result;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        processed = executionContext.getLong(PROCESSED_COUNT, 0L);
+        processedInChunk = 0;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        processed += processedInChunk;
+        processedInChunk = 0;
+        executionContext.putLong(PROCESSED_COUNT, processed);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // 回滚的chunk不会调用update，在新chunk开始时丢弃其计数
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        processedInChunk = 0;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+}
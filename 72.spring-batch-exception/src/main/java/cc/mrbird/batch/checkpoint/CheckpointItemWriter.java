@@ -0,0 +1,68 @@
+package cc.mrbird.batch.checkpoint;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.List;
+
+/**
+ * 记录已写出数量的writer，状态随chunk提交保存到ExecutionContext，需通过listener()注册
+ *
+ * @author MrBird
+ */
+public class CheckpointItemWriter<T> implements ItemStreamWriter<T>, ChunkListener {
+
+    private static final String WRITTEN_COUNT = "checkpoint.writer.count";
+
+    private final ItemWriter<T> delegate;
+    private long written;
+    private long writtenInChunk;
+
+    public CheckpointItemWriter(ItemWriter<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(List<? extends T> items) throws Exception {
+        delegate.write(items);
+        writtenInChunk += items.size();
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        written = executionContext.getLong(WRITTEN_COUNT, 0L);
+        writtenInChunk = 0;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        written += writtenInChunk;
+        writtenInChunk = 0;
+        executionContext.putLong(WRITTEN_COUNT, written);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // 回滚的chunk不会调用update，在新chunk开始时丢弃其计数
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        writtenInChunk = 0;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+    }
+
+    public long getWritten() {
+        return written;
+    }
+}
@@ -0,0 +1,43 @@
+package cc.mrbird.batch.checkpoint;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * 可重启的List reader，已读取的数量随chunk提交保存到ExecutionContext，
+ * 重启时直接定位到上次提交的位置，不需要重新读取前面的数据
+ *
+ * @author MrBird
+ */
+public class CheckpointListItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+    private final List<T> items;
+    private int index;
+
+    public CheckpointListItemReader(List<T> items) {
+        this.items = items;
+        setName(ClassUtils.getShortName(CheckpointListItemReader.class));
+    }
+
+    @Override
+    protected T doRead() {
+        return index < items.size() ? items.get(index++) : null;
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) {
+        index = itemIndex;
+    }
+
+    @Override
+    protected void doOpen() {
+        index = 0;
+    }
+
+    @Override
+    protected void doClose() {
+        index = 0;
+    }
+}
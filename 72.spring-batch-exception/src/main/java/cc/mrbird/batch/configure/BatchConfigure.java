@@ -0,0 +1,47 @@
+package cc.mrbird.batch.configure;
+
+import cc.mrbird.batch.checkpoint.BinaryExecutionContextSerializer;
+import org.springframework.batch.core.configuration.annotation.DefaultBatchConfigurer;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * JobRepository和JobExplorer使用二进制的ExecutionContext序列化器
+ *
+ * @author MrBird
+ */
+@Component
+public class BatchConfigure extends DefaultBatchConfigurer {
+
+    private final DataSource dataSource;
+    private final BinaryExecutionContextSerializer serializer = new BinaryExecutionContextSerializer();
+
+    public BatchConfigure(DataSource dataSource) {
+        super(dataSource);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected JobRepository createJobRepository() throws Exception {
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(getTransactionManager());
+        factory.setSerializer(serializer);
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    @Override
+    protected JobExplorer createJobExplorer() throws Exception {
+        JobExplorerFactoryBean factory = new JobExplorerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setSerializer(serializer);
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
@@ -0,0 +1,47 @@
+package cc.mrbird.batch.controller;
+
+import cc.mrbird.batch.quarantine.QuarantineStore;
+import cc.mrbird.batch.quarantine.QuarantinedItem;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * @author MrBird
+ */
+@RestController
+@RequestMapping("quarantine")
+public class QuarantineController {
+
+    @Autowired
+    private QuarantineStore quarantineStore;
+    @Autowired
+    private JobLauncher jobLauncher;
+    @Autowired
+    private Job quarantineReplayJob;
+
+    @GetMapping("{jobName}")
+    public List<QuarantinedItem> pending(@PathVariable String jobName) {
+        return quarantineStore.findPending(jobName);
+    }
+
+    @GetMapping("replay/{jobName}")
+    public String replay(@PathVariable String jobName) throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("jobName", jobName)
+                // 每次重放都是新的任务实例
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+        JobExecution execution = jobLauncher.run(quarantineReplayJob, parameters);
+        return execution.getStatus().toString();
+    }
+}
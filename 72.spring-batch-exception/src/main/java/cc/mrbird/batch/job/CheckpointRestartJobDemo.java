@@ -0,0 +1,107 @@
+package cc.mrbird.batch.job;
+
+import cc.mrbird.batch.checkpoint.CheckpointItemProcessor;
+import cc.mrbird.batch.checkpoint.CheckpointItemWriter;
+import cc.mrbird.batch.checkpoint.CheckpointListItemReader;
+import cc.mrbird.batch.exception.MyJobExecutionException;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.repeat.CompletionPolicy;
+import org.springframework.batch.repeat.policy.CompositeCompletionPolicy;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.repeat.policy.TimeoutTerminationPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 按数据量或时间间隔（先到者为准）提交chunk，reader、processor和writer的状态随提交保存，
+ * 失败后重启从最后一次提交的位置继续。
+ * 演示：启动参数 failAt=57 第一次执行在数据57处失败，使用相同参数再次启动即从断点重启
+ *
+ * @author MrBird
+ */
+@Component
+public class CheckpointRestartJobDemo {
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    // 每处理多少条数据保存一次断点
+    @Value("${batch.checkpoint.items:20}")
+    private int checkpointItems;
+    // 距离上次保存断点超过多少毫秒时保存一次断点
+    @Value("${batch.checkpoint.interval:5000}")
+    private long checkpointInterval;
+    // 允许启动（包括重启）的次数
+    @Value("${batch.checkpoint.start-limit:3}")
+    private int startLimit;
+
+    @Bean
+    public Job checkpointRestartJob() {
+        return jobBuilderFactory.get("checkpointRestartJob")
+                .start(step())
+                .build();
+    }
+
+    private Step step() {
+        CheckpointItemProcessor<String, String> processor = new CheckpointItemProcessor<>(item -> {
+            failOnFirstRun(item);
+            return item;
+        });
+        CheckpointItemWriter<String> writer = new CheckpointItemWriter<>(list -> list.forEach(System.out::println));
+        return stepBuilderFactory.get("step")
+                .<String, String>chunk(checkpointPolicy())
+                .reader(checkpointReader())
+                .processor(processor)
+                .writer(writer)
+                .stream(processor)
+                .listener((ChunkListener) processor)
+                .listener((ChunkListener) writer)
+                .startLimit(startLimit)
+                .build();
+    }
+
+    // 数据量和时间间隔任一条件满足时结束当前chunk
+    private CompletionPolicy checkpointPolicy() {
+        CompositeCompletionPolicy policy = new CompositeCompletionPolicy();
+        policy.setPolicies(new CompletionPolicy[]{
+                new SimpleCompletionPolicy(checkpointItems),
+                new TimeoutTerminationPolicy(checkpointInterval)
+        });
+        return policy;
+    }
+
+    private CheckpointListItemReader<String> checkpointReader() {
+        List<String> datas = IntStream.range(0, 100).mapToObj(String::valueOf).collect(Collectors.toList());
+        return new CheckpointListItemReader<>(datas);
+    }
+
+    private void failOnFirstRun(String item) throws MyJobExecutionException {
+        StepExecution stepExecution = StepSynchronizationManager.getContext().getStepExecution();
+        String failAt = stepExecution.getJobParameters().getString("failAt");
+        if (failAt == null || !failAt.equals(item)) {
+            return;
+        }
+        // 只在任务实例的第一次执行时失败，重启时正常处理
+        int executions = jobExplorer.getJobExecutions(stepExecution.getJobExecution().getJobInstance()).size();
+        if (executions == 1) {
+            throw new MyJobExecutionException("处理数据" + item + "时出错");
+        }
+    }
+}
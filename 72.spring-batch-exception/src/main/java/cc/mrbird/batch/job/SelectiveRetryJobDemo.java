@@ -0,0 +1,129 @@
+package cc.mrbird.batch.job;
+
+import cc.mrbird.batch.exception.MyJobExecutionException;
+import cc.mrbird.batch.quarantine.QuarantineSkipListener;
+import cc.mrbird.batch.quarantine.QuarantineStore;
+import cc.mrbird.batch.quarantine.QuarantinedItem;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * 只针对出错的数据重试，重试之间指数退避；重试多次后仍失败的数据写入隔离表，
+ * chunk中其他数据正常提交，隔离的数据可通过 /quarantine/replay 重放
+ *
+ * @author MrBird
+ */
+@Component
+public class SelectiveRetryJobDemo {
+
+    @Autowired
+    private JobBuilderFactory jobBuilderFactory;
+    @Autowired
+    private StepBuilderFactory stepBuilderFactory;
+    @Autowired
+    private QuarantineSkipListener quarantineSkipListener;
+    @Autowired
+    private QuarantineStore quarantineStore;
+    @Autowired
+    private ListItemReader<QuarantinedItem> quarantineReader;
+
+    // 两个任务共用同一个processor，便于演示重放时下游已恢复
+    private final ItemProcessor<String, String> myProcessor = myProcessor();
+
+    @Bean
+    public Job selectiveRetryJob() {
+        return jobBuilderFactory.get("selectiveRetryJob")
+                .start(step())
+                .build();
+    }
+
+    @Bean
+    public Job quarantineReplayJob() {
+        return jobBuilderFactory.get("quarantineReplayJob")
+                .start(replayStep())
+                .build();
+    }
+
+    private Step step() {
+        return stepBuilderFactory.get("step")
+                .<String, String>chunk(2)
+                .reader(listItemReader())
+                .processor(myProcessor)
+                .writer(list -> list.forEach(System.out::println))
+                .faultTolerant()
+                // 回滚后不再重新处理chunk中已经处理成功的数据，只重试出错的数据
+                .processorNonTransactional()
+                .retry(MyJobExecutionException.class)
+                .retryLimit(3)
+                .backOffPolicy(backOffPolicy())
+                // 重试3次仍然失败则跳过该数据，交给隔离区保存
+                .skip(MyJobExecutionException.class)
+                .skipLimit(100)
+                .listener(quarantineSkipListener)
+                .build();
+    }
+
+    private Step replayStep() {
+        return stepBuilderFactory.get("replayStep")
+                .<QuarantinedItem, QuarantinedItem>chunk(2)
+                .reader(quarantineReader)
+                .processor(quarantined -> {
+                    // 重放时仍失败的数据保留在隔离表中，等待下次重放
+                    myProcessor.process(quarantined.getItem());
+                    return quarantined;
+                })
+                .writer(list -> list.forEach(quarantined -> {
+                    System.out.println("重放成功：" + quarantined.getItem());
+                    quarantineStore.markReplayed(quarantined.getId());
+                }))
+                .faultTolerant()
+                .skip(MyJobExecutionException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .build();
+    }
+
+    // 指数退避：100ms、200ms、400ms...，最多1s
+    private ExponentialBackOffPolicy backOffPolicy() {
+        ExponentialBackOffPolicy policy = new ExponentialBackOffPolicy();
+        policy.setInitialInterval(100);
+        policy.setMultiplier(2);
+        policy.setMaxInterval(1000);
+        return policy;
+    }
+
+    private ListItemReader<String> listItemReader() {
+        ArrayList<String> datas = new ArrayList<>();
+        IntStream.range(0, 5).forEach(i -> datas.add(String.valueOf(i)));
+        return new ListItemReader<>(datas);
+    }
+
+    private ItemProcessor<String, String> myProcessor() {
+        return new ItemProcessor<String, String>() {
+            private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+            @Override
+            public String process(String item) throws Exception {
+                int attempt = attempts.merge(item, 1, Integer::sum);
+                System.out.println("当前处理的数据：" + item + "，第" + attempt + "次");
+                // 数据2前3次都失败，重试耗尽后进入隔离区，重放时成功；数据3第一次失败，重试后成功
+                if (("2".equals(item) && attempt <= 3) || ("3".equals(item) && attempt == 1)) {
+                    throw new MyJobExecutionException("任务处理出错");
+                }
+                return item;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package cc.mrbird.batch.quarantine;
+
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author MrBird
+ */
+@Configuration
+public class QuarantineConfigure {
+
+    /**
+     * 读取隔离区中待重放的数据，任务参数jobName为空时读取全部
+     */
+    @Bean
+    @StepScope
+    public ListItemReader<QuarantinedItem> quarantineReader(QuarantineStore quarantineStore,
+                                                            @Value("#{jobParameters['jobName']}") String jobName) {
+        return new ListItemReader<>(quarantineStore.findPending(jobName));
+    }
+}
@@ -0,0 +1,41 @@
+package cc.mrbird.batch.quarantine;
+
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * 被跳过的数据不再回滚整个chunk，而是写入隔离表
+ *
+ * @author MrBird
+ */
+@Component
+public class QuarantineSkipListener implements SkipListener<String, String> {
+
+    private final QuarantineStore quarantineStore;
+
+    public QuarantineSkipListener(QuarantineStore quarantineStore) {
+        this.quarantineStore = quarantineStore;
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        System.out.println("在读取数据的时候遇到异常并跳过，异常：" + t.getMessage());
+    }
+
+    @Override
+    public void onSkipInWrite(String item, Throwable t) {
+        quarantineStore.save(jobName(), item, t);
+    }
+
+    @Override
+    public void onSkipInProcess(String item, Throwable t) {
+        quarantineStore.save(jobName(), item, t);
+    }
+
+    private String jobName() {
+        StepContext context = StepSynchronizationManager.getContext();
+        return context == null ? "unknown" : context.getJobName();
+    }
+}
@@ -0,0 +1,60 @@
+package cc.mrbird.batch.quarantine;
+
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * 重试多次后仍然失败的数据保存到隔离表中，等待重放
+ *
+ * @author MrBird
+ */
+@Component
+public class QuarantineStore {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuarantineStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("create table if not exists BATCH_QUARANTINE (" +
+                "id bigint auto_increment primary key, " +
+                "job_name varchar(100) not null, " +
+                "item varchar(2500) not null, " +
+                "error varchar(" + MAX_ERROR_LENGTH + "), " +
+                "replayed tinyint(1) not null default 0, " +
+                "create_time timestamp default current_timestamp)");
+    }
+
+    public void save(String jobName, String item, Throwable error) {
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        jdbcTemplate.update("insert into BATCH_QUARANTINE(job_name,item,error) values (?,?,?)", jobName, item, message);
+    }
+
+    /**
+     * 查询未重放的数据，jobName为空时查询全部
+     */
+    public List<QuarantinedItem> findPending(String jobName) {
+        BeanPropertyRowMapper<QuarantinedItem> mapper = new BeanPropertyRowMapper<>(QuarantinedItem.class);
+        if (jobName == null) {
+            return jdbcTemplate.query("select id,job_name,item,error from BATCH_QUARANTINE where replayed = 0 order by id", mapper);
+        }
+        return jdbcTemplate.query("select id,job_name,item,error from BATCH_QUARANTINE where replayed = 0 and job_name = ? order by id",
+                mapper, jobName);
+    }
+
+    public void markReplayed(long id) {
+        jdbcTemplate.update("update BATCH_QUARANTINE set replayed = 1 where id = ?", id);
+    }
+}
@@ -0,0 +1,56 @@
+package cc.mrbird.batch.quarantine;
+
+/**
+ * 隔离区中的数据
+ *
+ * @author MrBird
+ */
+public class QuarantinedItem {
+
+    private long id;
+    private String jobName;
+    private String item;
+    private String error;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public void setItem(String item) {
+        this.item = item;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "QuarantinedItem{" +
+                "id=" + id +
+                ", jobName='" + jobName + '\'' +
+                ", item='" + item + '\'' +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package cc.mrbird.batch.configure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 任务队列配置
+ *
+ * @author MrBird
+ */
+@Component
+@ConfigurationProperties(prefix = "job-queue")
+public class JobQueueProperties {
+
+    /**
+     * 队列中最多等待的任务数，超过后拒绝提交
+     */
+    private int capacity = 100;
+
+    /**
+     * 同时运行的任务总数
+     */
+    private int maxConcurrent = 4;
+
+    /**
+     * 单个任务默认的并发数
+     */
+    private int defaultJobConcurrency = 1;
+
+    /**
+     * 按任务名称单独设置并发数
+     */
+    private Map<String, Integer> jobConcurrency = new HashMap<>();
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getDefaultJobConcurrency() {
+        return defaultJobConcurrency;
+    }
+
+    public void setDefaultJobConcurrency(int defaultJobConcurrency) {
+        this.defaultJobConcurrency = defaultJobConcurrency;
+    }
+
+    public Map<String, Integer> getJobConcurrency() {
+        return jobConcurrency;
+    }
+
+    public void setJobConcurrency(Map<String, Integer> jobConcurrency) {
+        this.jobConcurrency = jobConcurrency;
+    }
+
+    public int concurrencyOf(String jobName) {
+        return jobConcurrency.getOrDefault(jobName, defaultJobConcurrency);
+    }
+}
@@ -1,15 +1,28 @@
 package cc.mrbird.batch.controller;
 
+import cc.mrbird.batch.launcher.JobQueueLauncher;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.JobOperator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author MrBird
@@ -24,6 +37,11 @@ public class JobController {
     private JobLauncher jobLauncher;
     @Autowired
     private JobOperator jobOperator;
+    @Autowired
+    private JobQueueLauncher jobQueueLauncher;
+
+    // 推送任务状态的定时线程
+    private final ScheduledExecutorService statusPusher = Executors.newSingleThreadScheduledExecutor();
 
     @GetMapping("launcher/{message}")
     public String launcher(@PathVariable String message) throws Exception {
@@ -41,4 +59,53 @@ public class JobController {
         jobOperator.start("job", "message=" + message);
         return "success";
     }
+
+    @GetMapping("async/{message}")
+    public Long asyncLauncher(@PathVariable String message,
+                              @RequestParam(defaultValue = "0") int priority) throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("message", message)
+                .toJobParameters();
+        // 任务进入队列后立即返回执行id，不阻塞HTTP线程
+        return jobQueueLauncher.submit(job.getName(), parameters, priority);
+    }
+
+    @GetMapping("execution/{id}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable Long id) {
+        Map<String, Object> status = jobQueueLauncher.status(id);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    @GetMapping(value = "execution/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable Long id) throws IOException {
+        Map<String, Object> status = jobQueueLauncher.status(id);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.send(status);
+        if (jobQueueLauncher.isFinished(id)) {
+            emitter.complete();
+            return ResponseEntity.ok(emitter);
+        }
+        // 每秒推送一次状态，任务结束或连接断开后停止推送
+        ScheduledFuture<?> task = statusPusher.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(jobQueueLauncher.status(id));
+                if (jobQueueLauncher.isFinished(id)) {
+                    emitter.complete();
+                }
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+        emitter.onCompletion(() -> task.cancel(false));
+        emitter.onError(e -> task.cancel(false));
+        return ResponseEntity.ok(emitter);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        statusPusher.shutdownNow();
+    }
 }
@@ -0,0 +1,19 @@
+package cc.mrbird.batch.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 任务队列已满
+ *
+ * @author MrBird
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class JobQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 2594476460442931627L;
+
+    public JobQueueFullException(int capacity) {
+        super("任务队列已满，容量: " + capacity);
+    }
+}
@@ -0,0 +1,197 @@
+package cc.mrbird.batch.launcher;
+
+import cc.mrbird.batch.configure.JobQueueProperties;
+import cc.mrbird.batch.exception.JobQueueFullException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步任务启动器：提交时立即创建JobExecution并返回其id，任务进入有界优先级队列，
+ * 由固定大小的线程池按优先级执行，并限制总并发数和单个任务的并发数，
+ * 避免在HTTP线程中同步执行任务
+ *
+ * @author MrBird
+ */
+@Component
+public class JobQueueLauncher implements DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final JobRegistry jobRegistry;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final JobQueueProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final AtomicLong sequence = new AtomicLong();
+    // 等待执行的任务，优先级高的在前，优先级相同时先提交的在前
+    private final TreeSet<QueuedJob> pending = new TreeSet<>();
+    // 已交给线程池但可能还没开始执行的任务，此时JobExecution还没有startTime
+    private final Set<Long> dispatched = new HashSet<>();
+    private final Map<String, Integer> runningPerJob = new HashMap<>();
+    private int running;
+
+    public JobQueueLauncher(JobRegistry jobRegistry, JobRepository jobRepository,
+                            JobExplorer jobExplorer, JobQueueProperties properties) {
+        this.jobRegistry = jobRegistry;
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.properties = properties;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getMaxConcurrent());
+        this.executor.setMaxPoolSize(properties.getMaxConcurrent());
+        this.executor.setThreadNamePrefix("job-queue-");
+        this.executor.initialize();
+    }
+
+    /**
+     * 提交任务，返回JobExecution id
+     *
+     * @param jobName    任务名称
+     * @param parameters 任务参数
+     * @param priority   优先级，数值越大越先执行
+     */
+    public Long submit(String jobName, JobParameters parameters, int priority) throws Exception {
+        Job job = jobRegistry.getJob(jobName);
+        if (job.getJobParametersValidator() != null) {
+            job.getJobParametersValidator().validate(parameters);
+        }
+        synchronized (this) {
+            if (pending.size() >= properties.getCapacity()) {
+                throw new JobQueueFullException(properties.getCapacity());
+            }
+            // 与SimpleJobLauncher一致，先在JobRepository中创建执行记录，重复运行等异常在这里同步抛出
+            JobExecution execution = jobRepository.createJobExecution(jobName, parameters);
+            pending.add(new QueuedJob(job, execution, priority, sequence.incrementAndGet()));
+            dispatch();
+            return execution.getId();
+        }
+    }
+
+    /**
+     * 查询执行状态，排队中的任务额外返回队列位置
+     */
+    public Map<String, Object> status(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null) {
+            return null;
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", execution.getId());
+        status.put("jobName", execution.getJobInstance().getJobName());
+        status.put("status", execution.getStatus());
+        status.put("exitCode", execution.getExitStatus().getExitCode());
+        status.put("startTime", execution.getStartTime());
+        status.put("endTime", execution.getEndTime());
+        int position = queuePosition(executionId);
+        if (position >= 0) {
+            status.put("queuePosition", position);
+        }
+        return status;
+    }
+
+    public boolean isFinished(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        return execution == null || !execution.isRunning() && !isQueued(executionId);
+    }
+
+    private synchronized boolean isQueued(Long executionId) {
+        return dispatched.contains(executionId) || queuePosition(executionId) >= 0;
+    }
+
+    private synchronized int queuePosition(Long executionId) {
+        int position = 0;
+        for (QueuedJob queued : pending) {
+            if (queued.execution.getId().equals(executionId)) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    // 按优先级取出未超过并发限制的任务交给线程池执行
+    private synchronized void dispatch() {
+        Iterator<QueuedJob> iterator = pending.iterator();
+        while (running < properties.getMaxConcurrent() && iterator.hasNext()) {
+            QueuedJob queued = iterator.next();
+            String jobName = queued.job.getName();
+            int runningOfJob = runningPerJob.getOrDefault(jobName, 0);
+            if (runningOfJob >= properties.concurrencyOf(jobName)) {
+                continue;
+            }
+            iterator.remove();
+            dispatched.add(queued.execution.getId());
+            running++;
+            runningPerJob.put(jobName, runningOfJob + 1);
+            executor.execute(() -> execute(queued));
+        }
+    }
+
+    private void execute(QueuedJob queued) {
+        try {
+            queued.job.execute(queued.execution);
+        } catch (Throwable t) {
+            log.error("任务执行失败: {}", queued.execution.getId(), t);
+            queued.execution.upgradeStatus(BatchStatus.FAILED);
+            queued.execution.setExitStatus(ExitStatus.FAILED.addExitDescription(t));
+            queued.execution.setEndTime(new Date());
+            jobRepository.update(queued.execution);
+        } finally {
+            synchronized (this) {
+                dispatched.remove(queued.execution.getId());
+                running--;
+                runningPerJob.merge(queued.job.getName(), -1, Integer::sum);
+                dispatch();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    static class QueuedJob implements Comparable<QueuedJob> {
+        final Job job;
+        final JobExecution execution;
+        final int priority;
+        final long sequence;
+
+        QueuedJob(Job job, JobExecution execution, int priority, long sequence) {
+            this.job = job;
+            this.execution = execution;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
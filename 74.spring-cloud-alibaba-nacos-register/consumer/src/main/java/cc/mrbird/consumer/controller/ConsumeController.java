@@ -1,13 +1,14 @@
 package cc.mrbird.consumer.controller;
 
+import cc.mrbird.consumer.discovery.CachedInstanceSelector;
+import cc.mrbird.consumer.discovery.ProviderClient;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
 
 /**
  * @author MrBird
@@ -17,15 +18,17 @@ import org.springframework.web.client.RestTemplate;
 public class ConsumeController {
 
     @Autowired
-    private LoadBalancerClient loadBalancerClient;
+    private ProviderClient providerClient;
     @Autowired
-    private RestTemplate restTemplate;
+    private CachedInstanceSelector instanceSelector;
 
     @GetMapping("hello/{message}")
     public String hello(@PathVariable String message) {
-        ServiceInstance serviceInstance = loadBalancerClient.choose("provider");
-        String path = String.format("http://%s:%s/provide/%s", serviceInstance.getHost(), serviceInstance.getPort(), message);
-        String result = restTemplate.getForObject(path, String.class);
-        return String.format("%s from %s %s", result, serviceInstance.getHost(), serviceInstance.getPort());
+        return providerClient.hello(message);
+    }
+
+    @GetMapping("instances")
+    public Map<String, Object> instances() {
+        return instanceSelector.stats();
     }
 }
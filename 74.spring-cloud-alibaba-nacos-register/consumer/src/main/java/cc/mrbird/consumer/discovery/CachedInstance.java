@@ -0,0 +1,39 @@
+package cc.mrbird.consumer.discovery;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+
+/**
+ * 刷新实例列表时预先拼接好请求地址前缀，请求时不再格式化
+ *
+ * @author MrBird
+ */
+public class CachedInstance {
+
+    private final String host;
+    private final int port;
+    private final String key;
+    private final String baseUrl;
+
+    public CachedInstance(Instance instance) {
+        this.host = instance.getIp();
+        this.port = instance.getPort();
+        this.key = host + ":" + port;
+        this.baseUrl = "http://" + key;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
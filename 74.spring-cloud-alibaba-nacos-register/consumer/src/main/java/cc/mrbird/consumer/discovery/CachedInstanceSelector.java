@@ -0,0 +1,174 @@
+package cc.mrbird.consumer.discovery;
+
+import com.alibaba.cloud.nacos.NacosDiscoveryProperties;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存服务实例列表，订阅Nacos的推送事件刷新缓存，选择实例时不再访问注册中心。
+ * 被动健康检查：实例连续失败达到阈值后摘除一段时间，再次被摘除时时间加倍，
+ * 所有实例都被摘除时退回使用全部实例
+ *
+ * @author MrBird
+ */
+@Component
+public class CachedInstanceSelector {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final NacosDiscoveryProperties discoveryProperties;
+    private final int failureThreshold;
+    private final long baseEjectionMillis;
+    private final long maxEjectionMillis;
+
+    private final ConcurrentMap<String, ServiceEntry> services = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HealthState> health = new ConcurrentHashMap<>();
+
+    public CachedInstanceSelector(NacosDiscoveryProperties discoveryProperties,
+                                  @Value("${consumer.health.failure-threshold:3}") int failureThreshold,
+                                  @Value("${consumer.health.base-ejection-millis:10000}") long baseEjectionMillis,
+                                  @Value("${consumer.health.max-ejection-millis:120000}") long maxEjectionMillis) {
+        this.discoveryProperties = discoveryProperties;
+        this.failureThreshold = failureThreshold;
+        this.baseEjectionMillis = baseEjectionMillis;
+        this.maxEjectionMillis = maxEjectionMillis;
+    }
+
+    /**
+     * 轮询选择一个未被摘除的实例，没有可用实例时返回null
+     */
+    public CachedInstance choose(String serviceName) {
+        // 订阅失败时不缓存，之后的调用会重新订阅
+        ServiceEntry entry = services.computeIfAbsent(serviceName, this::subscribe);
+        if (entry == null) {
+            return null;
+        }
+        List<CachedInstance> instances = entry.instances;
+        if (instances.isEmpty()) {
+            return null;
+        }
+        int start = Math.abs(entry.position.getAndIncrement() % instances.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < instances.size(); i++) {
+            CachedInstance instance = instances.get((start + i) % instances.size());
+            HealthState state = health.get(instance.getKey());
+            if (state == null || state.ejectedUntil <= now) {
+                return instance;
+            }
+        }
+        // 全部被摘除时不再摘除，避免一个都选不到
+        return instances.get(start);
+    }
+
+    public void recordSuccess(CachedInstance instance) {
+        HealthState state = health.get(instance.getKey());
+        if (state != null) {
+            state.onSuccess();
+        }
+    }
+
+    public void recordFailure(CachedInstance instance) {
+        HealthState state = health.computeIfAbsent(instance.getKey(), key -> new HealthState());
+        if (state.onFailure(failureThreshold, baseEjectionMillis, maxEjectionMillis)) {
+            log.warn("实例 {} 连续失败{}次，暂时摘除", instance.getKey(), failureThreshold);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        services.forEach((serviceName, entry) -> {
+            Map<String, Object> instances = new LinkedHashMap<>();
+            entry.instances.forEach(instance -> {
+                HealthState state = health.get(instance.getKey());
+                Map<String, Object> instanceStats = new LinkedHashMap<>();
+                instanceStats.put("consecutiveFailures", state == null ? 0 : state.consecutiveFailures.get());
+                instanceStats.put("ejectedMillis", state == null ? 0 : Math.max(0, state.ejectedUntil - now));
+                instances.put(instance.getKey(), instanceStats);
+            });
+            stats.put(serviceName, instances);
+        });
+        return stats;
+    }
+
+    // 订阅失败时返回null
+    private ServiceEntry subscribe(String serviceName) {
+        ServiceEntry entry = new ServiceEntry();
+        NamingService namingService = discoveryProperties.namingServiceInstance();
+        String group = discoveryProperties.getGroup();
+        try {
+            entry.refresh(namingService.selectInstances(serviceName, group, true));
+            // 实例变化时Nacos推送最新的实例列表
+            namingService.subscribe(serviceName, group, event -> {
+                if (event instanceof NamingEvent) {
+                    entry.refresh(((NamingEvent) event).getInstances());
+                    log.info("服务 {} 的实例列表已刷新，可用实例数：{}", serviceName, entry.instances.size());
+                }
+            });
+        } catch (NacosException e) {
+            log.error("订阅服务 " + serviceName + " 失败", e);
+            return null;
+        }
+        return entry;
+    }
+
+    private static class ServiceEntry {
+        private volatile List<CachedInstance> instances = Collections.emptyList();
+        private final AtomicInteger position = new AtomicInteger();
+
+        void refresh(List<Instance> latest) {
+            List<CachedInstance> instances = new ArrayList<>(latest.size());
+            for (Instance instance : latest) {
+                if (instance.isHealthy() && instance.isEnabled()) {
+                    instances.add(new CachedInstance(instance));
+                }
+            }
+            this.instances = Collections.unmodifiableList(instances);
+        }
+    }
+
+    private static class HealthState {
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private int ejections;
+        private volatile long ejectedUntil;
+
+        void onSuccess() {
+            consecutiveFailures.set(0);
+            synchronized (this) {
+                ejections = 0;
+            }
+        }
+
+        // 返回是否因本次失败被摘除
+        boolean onFailure(int threshold, long baseMillis, long maxMillis) {
+            if (consecutiveFailures.incrementAndGet() < threshold) {
+                return false;
+            }
+            synchronized (this) {
+                if (ejectedUntil > System.currentTimeMillis()) {
+                    return false;
+                }
+                consecutiveFailures.set(0);
+                long millis = Math.min(maxMillis, baseMillis << Math.min(ejections, 16));
+                ejections++;
+                ejectedUntil = System.currentTimeMillis() + millis;
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cc.mrbird.consumer.discovery;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 调用provider服务：从缓存中选择实例，通过连接池发送请求，并把结果反馈给被动健康检查
+ *
+ * @author MrBird
+ */
+@Component
+public class ProviderClient {
+
+    private static final String SERVICE_NAME = "provider";
+
+    private final CachedInstanceSelector selector;
+    private final RestTemplate restTemplate;
+
+    public ProviderClient(CachedInstanceSelector selector, RestTemplate restTemplate) {
+        this.selector = selector;
+        this.restTemplate = restTemplate;
+    }
+
+    public String hello(String message) {
+        CachedInstance instance = selector.choose(SERVICE_NAME);
+        if (instance == null) {
+            throw new IllegalStateException("服务 " + SERVICE_NAME + " 没有可用的实例");
+        }
+        try {
+            String result = restTemplate.getForObject(instance.getBaseUrl() + "/provide/{message}", String.class, message);
+            selector.recordSuccess(instance);
+            return result + " from " + instance.getHost() + " " + instance.getPort();
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // 连接失败、超时和5xx计为实例失败，4xx是请求本身的问题
+            selector.recordFailure(instance);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cc.mrbird.nacos.config;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 某一时刻的配置快照，创建后不可修改，读取时不需要加锁
+ *
+ * @author MrBird
+ */
+public final class ConfigSnapshot {
+
+    private final String message;
+    private final String ext1;
+    private final String ext2;
+
+    private ConfigSnapshot(String message, String ext1, String ext2) {
+        this.message = message;
+        this.ext1 = ext1;
+        this.ext2 = ext2;
+    }
+
+    public static ConfigSnapshot from(Environment environment) {
+        return new ConfigSnapshot(
+                environment.getProperty("message", "null"),
+                environment.getProperty("ext1", "null"),
+                environment.getProperty("ext2", "null"));
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getExt1() {
+        return ext1;
+    }
+
+    public String getExt2() {
+        return ext2;
+    }
+
+    /**
+     * 与之前的快照比较，返回值发生变化的配置项及新值
+     */
+    public Map<String, Object> diff(ConfigSnapshot previous) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "message", message, previous.message);
+        putIfChanged(changes, "ext1", ext1, previous.ext1);
+        putIfChanged(changes, "ext2", ext2, previous.ext2);
+        return Collections.unmodifiableMap(changes);
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String key, String current, String previous) {
+        if (!Objects.equals(current, previous)) {
+            changes.put(key, current);
+        }
+    }
+}
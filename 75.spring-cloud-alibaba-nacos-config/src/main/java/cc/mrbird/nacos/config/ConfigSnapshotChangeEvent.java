@@ -0,0 +1,39 @@
+package cc.mrbird.nacos.config;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/**
+ * 配置快照发生变化时发布，只包含值确实发生变化的配置项
+ *
+ * @author MrBird
+ */
+public class ConfigSnapshotChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -5468031962435624733L;
+
+    private final ConfigSnapshot previous;
+    private final ConfigSnapshot current;
+    private final Map<String, Object> changes;
+
+    public ConfigSnapshotChangeEvent(Object source, ConfigSnapshot previous, ConfigSnapshot current,
+                                     Map<String, Object> changes) {
+        super(source);
+        this.previous = previous;
+        this.current = current;
+        this.changes = changes;
+    }
+
+    public ConfigSnapshot getPrevious() {
+        return previous;
+    }
+
+    public ConfigSnapshot getCurrent() {
+        return current;
+    }
+
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,22 @@
+package cc.mrbird.nacos.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.stereotype.Component;
+
+/**
+ * 原来 @RefreshScope 方式读取配置的bean，只用于 RefreshBenchmark 对比
+ *
+ * @author MrBird
+ */
+@Component
+@RefreshScope
+public class RefreshScopedConfig {
+
+    @Value("${message:null}")
+    private String message;
+
+    public String getMessage() {
+        return message;
+    }
+}
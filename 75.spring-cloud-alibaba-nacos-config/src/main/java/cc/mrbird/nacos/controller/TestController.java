@@ -1,31 +1,42 @@
 package cc.mrbird.nacos.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import cc.mrbird.nacos.config.ConfigSnapshot;
+import cc.mrbird.nacos.config.ConfigSnapshotHolder;
+import cc.mrbird.nacos.config.RefreshBenchmark;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 /**
  * @author MrBird
  */
 @RestController
-@RefreshScope
 public class TestController {
 
-    @Value("${message:null}")
-    private String message;
-    @Value("${ext1:null}")
-    private String ext1;
-    @Value("${ext2:null}")
-    private String ext2;
+    @Autowired
+    private ConfigSnapshotHolder configSnapshotHolder;
+    @Autowired
+    private RefreshBenchmark refreshBenchmark;
 
     @GetMapping("message")
     public String getMessage() {
-        return this.message;
+        return configSnapshotHolder.get().getMessage();
     }
 
     @GetMapping("multi")
     public String multiConfig() {
-        return String.format("ext1: %s ext2: %s", ext1, ext2);
+        // 同一个快照中的ext1和ext2，不会读到刷新了一半的配置
+        ConfigSnapshot snapshot = configSnapshotHolder.get();
+        return String.format("ext1: %s ext2: %s", snapshot.getExt1(), snapshot.getExt2());
+    }
+
+    @GetMapping("testRefresh")
+    public Map<String, Object> testRefresh(@RequestParam(defaultValue = "1000000") int reads,
+                                           @RequestParam(defaultValue = "4") int readers,
+                                           @RequestParam(defaultValue = "50") int refreshes) throws InterruptedException {
+        return refreshBenchmark.run(reads, readers, refreshes);
     }
 }
@@ -0,0 +1,20 @@
+package cc.mrbird.sentinel.benchmark;
+
+import com.alibaba.csp.sentinel.annotation.SentinelResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 只供 SlotChainBenchmark 使用的 @SentinelResource 资源，避免压测业务资源污染其统计数据
+ *
+ * @author MrBird
+ */
+@Component
+public class BenchmarkResource {
+
+    public static final String RESOURCE = SlotChainBenchmark.RESOURCE_PREFIX + "annotated";
+
+    @SentinelResource(RESOURCE)
+    public int call() {
+        return "hello".length();
+    }
+}
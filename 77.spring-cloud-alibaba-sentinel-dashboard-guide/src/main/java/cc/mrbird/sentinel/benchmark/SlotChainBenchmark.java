@@ -0,0 +1,168 @@
+package cc.mrbird.sentinel.benchmark;
+
+import cc.mrbird.sentinel.hotparam.HotParamLimiter;
+import cc.mrbird.sentinel.hotparam.HotParamRule;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * 测量Sentinel slot chain的单次调用开销：
+ * 直接调用、SphU.entry/exit（无规则和有不会触发的流控规则）、专用 @SentinelResource 资源的代理调用，以及热点参数限流检查。
+ * 每种方式先预热再计时，多个线程同时执行，结果为平均每次调用的纳秒数。
+ * 压测用的流控规则在结束后移除，并且不会写入规则文件
+ *
+ * @author MrBird
+ */
+@Component
+public class SlotChainBenchmark {
+
+    // 压测资源名称的前缀
+    public static final String RESOURCE_PREFIX = "benchmark-";
+
+    private static final String NO_RULE_RESOURCE = RESOURCE_PREFIX + "no-rule";
+    private static final String FLOW_RULE_RESOURCE = RESOURCE_PREFIX + "flow-rule";
+
+    private static final String HOT_PARAM_RESOURCE = RESOURCE_PREFIX + "hot-param";
+
+    private final BenchmarkResource benchmarkResource;
+    // 独立的限流器，不影响应用加载的热点参数规则
+    private final HotParamLimiter hotParamLimiter = new HotParamLimiter(4, 1024);
+
+    public SlotChainBenchmark(BenchmarkResource benchmarkResource) {
+        this.benchmarkResource = benchmarkResource;
+        HotParamRule rule = new HotParamRule();
+        rule.setResource(HOT_PARAM_RESOURCE);
+        rule.setParamIndex(0);
+        rule.setQps(Double.MAX_VALUE);
+        hotParamLimiter.loadRules(Collections.singletonList(rule));
+    }
+
+    /**
+     * @param iterations 每个线程的调用次数，另外先预热相同次数
+     * @param threads    并发线程数
+     */
+    public Map<String, Object> run(int iterations, int threads) throws InterruptedException {
+        addBenchmarkFlowRules();
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("iterations", iterations);
+            result.put("threads", threads);
+            result.put("direct", measure(this::work, iterations, threads));
+            result.put("sphuNoRule", measure(() -> guarded(NO_RULE_RESOURCE), iterations, threads));
+            result.put("sphuFlowRule", measure(() -> guarded(FLOW_RULE_RESOURCE), iterations, threads));
+            result.put("sentinelResource", measure(benchmarkResource::call, iterations, threads));
+            Object[] args = {"benchmark-good", 1};
+            result.put("hotParamCheck", measure(() -> hotParamLimiter.tryPass(HOT_PARAM_RESOURCE, args) ? 1 : 0,
+                    iterations, threads));
+            return result;
+        } finally {
+            removeBenchmarkFlowRules();
+        }
+    }
+
+    public static boolean isBenchmarkResource(String resource) {
+        return resource != null && resource.startsWith(RESOURCE_PREFIX);
+    }
+
+    // 阈值足够大的QPS规则，只测量规则检查的开销，不会触发限流
+    private void addBenchmarkFlowRules() {
+        List<FlowRule> rules = new ArrayList<>(FlowRuleManager.getRules());
+        boolean changed = false;
+        for (String resource : new String[]{FLOW_RULE_RESOURCE, BenchmarkResource.RESOURCE}) {
+            if (rules.stream().noneMatch(rule -> resource.equals(rule.getResource()))) {
+                FlowRule rule = new FlowRule(resource);
+                rule.setCount(Integer.MAX_VALUE);
+                rules.add(rule);
+                changed = true;
+            }
+        }
+        if (changed) {
+            FlowRuleManager.loadRules(rules);
+        }
+    }
+
+    // 只移除压测规则，保留压测期间控制台推送的规则
+    private void removeBenchmarkFlowRules() {
+        List<FlowRule> rules = new ArrayList<>(FlowRuleManager.getRules());
+        if (rules.removeIf(rule -> isBenchmarkResource(rule.getResource()))) {
+            FlowRuleManager.loadRules(rules);
+        }
+    }
+
+    private int guarded(String resource) {
+        Entry entry = null;
+        try {
+            entry = SphU.entry(resource);
+            return work();
+        } catch (BlockException e) {
+            return -1;
+        } finally {
+            if (entry != null) {
+                entry.exit();
+            }
+        }
+    }
+
+    // 被保护的方法本身的工作量很小，测量结果主要是框架开销
+    private int work() {
+        return "hello".length();
+    }
+
+    private double measure(IntSupplier call, int iterations, int threads) throws InterruptedException {
+        run(call, iterations, threads);
+        return (double) run(call, iterations, threads) / iterations;
+    }
+
+    // 返回每个线程执行完所有调用的平均耗时，单位纳秒
+    private long run(IntSupplier call, int iterations, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder elapsed = new LongAdder();
+        LongAdder blackhole = new LongAdder();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    int sum = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        sum += call.getAsInt();
+                    }
+                    elapsed.add(System.nanoTime() - begin);
+                    blackhole.add(sum);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // 调用抛出异常时也要计数，否则主线程一直等待
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            ready.await();
+            start.countDown();
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+        return elapsed.sum() / threads;
+    }
+}
@@ -0,0 +1,102 @@
+package cc.mrbird.sentinel.config;
+
+import cc.mrbird.sentinel.benchmark.SlotChainBenchmark;
+import cc.mrbird.sentinel.hotparam.HotParamLimiter;
+import cc.mrbird.sentinel.hotparam.HotParamRule;
+import com.alibaba.csp.sentinel.datasource.FileRefreshableDataSource;
+import com.alibaba.csp.sentinel.datasource.FileWritableDataSource;
+import com.alibaba.csp.sentinel.property.SimplePropertyListener;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.transport.util.WritableDataSourceRegistry;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 本地文件保存规则：
+ * 1. 流控规则和热点参数规则从规则目录下的json文件加载，文件修改后自动重新加载；
+ * 2. 控制台推送的流控规则写回文件，应用重启后不会丢失；
+ * 3. 规则文件不存在时从classpath下的 rules 目录复制默认规则
+ *
+ * @author MrBird
+ */
+@Configuration
+public class SentinelRuleConfigure implements InitializingBean, DisposableBean {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private static final String FLOW_RULES = "flow-rules.json";
+    private static final String HOT_PARAM_RULES = "hot-param-rules.json";
+
+    @Value("${sentinel.rules.dir:${user.home}/sentinel-rules/${spring.application.name}}")
+    private String rulesDir;
+
+    private final HotParamLimiter hotParamLimiter;
+
+    private FileRefreshableDataSource<List<FlowRule>> flowRuleDataSource;
+    private FileRefreshableDataSource<List<HotParamRule>> hotParamRuleDataSource;
+
+    public SentinelRuleConfigure(HotParamLimiter hotParamLimiter) {
+        this.hotParamLimiter = hotParamLimiter;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        File flowRuleFile = ruleFile(FLOW_RULES);
+        flowRuleDataSource = new FileRefreshableDataSource<>(flowRuleFile,
+                source -> JSON.parseObject(source, new TypeReference<List<FlowRule>>() {
+                }));
+        FlowRuleManager.register2Property(flowRuleDataSource.getProperty());
+        // 压测规则只在内存中生效，不写入规则文件
+        WritableDataSourceRegistry.registerFlowDataSource(new FileWritableDataSource<List<FlowRule>>(flowRuleFile,
+                rules -> JSON.toJSONString(rules.stream()
+                        .filter(rule -> !SlotChainBenchmark.isBenchmarkResource(rule.getResource()))
+                        .collect(Collectors.toList()))));
+
+        hotParamRuleDataSource = new FileRefreshableDataSource<>(ruleFile(HOT_PARAM_RULES),
+                source -> JSON.parseObject(source, new TypeReference<List<HotParamRule>>() {
+                }));
+        hotParamRuleDataSource.getProperty().addListener(new SimplePropertyListener<List<HotParamRule>>() {
+            @Override
+            public void configUpdate(List<HotParamRule> rules) {
+                hotParamLimiter.loadRules(rules);
+            }
+        });
+        log.info("规则目录：{}", rulesDir);
+    }
+
+    private File ruleFile(String name) throws IOException {
+        File file = new File(rulesDir, name);
+        if (!file.exists()) {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (InputStream defaults = new ClassPathResource("rules/" + name).getInputStream()) {
+                Files.copy(defaults, file.toPath());
+            }
+        }
+        return file;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (flowRuleDataSource != null) {
+            flowRuleDataSource.close();
+        }
+        if (hotParamRuleDataSource != null) {
+            hotParamRuleDataSource.close();
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package cc.mrbird.sentinel.controller;
 
+import cc.mrbird.sentinel.benchmark.SlotChainBenchmark;
 import cc.mrbird.sentinel.service.HelloService;
 import com.alibaba.csp.sentinel.annotation.SentinelResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 /**
  * @author MrBird
  */
@@ -18,6 +22,8 @@ public class TestController {
 
     @Autowired
     private HelloService helloService;
+    @Autowired
+    private SlotChainBenchmark slotChainBenchmark;
 
     @GetMapping("test1")
     public String test1() {
@@ -35,4 +41,10 @@ public class TestController {
     public String buy(String goodName, Integer count) {
         return "买" + count + "份" + goodName;
     }
-}
\ No newline at end of file
+
+    @GetMapping("testOverhead")
+    public Map<String, Object> testOverhead(@RequestParam(defaultValue = "1000000") int iterations,
+                                            @RequestParam(defaultValue = "4") int threads) throws InterruptedException {
+        return slotChainBenchmark.run(iterations, threads);
+    }
+}
@@ -0,0 +1,52 @@
+package cc.mrbird.sentinel.hotparam;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch：用 depth * width 个计数器估计任意多个参数值的出现次数，内存固定。
+ * 估计值只会偏大不会偏小，即只可能多限流、不会漏限流；width越大，不同参数值冲突导致的偏差越小
+ *
+ * @author MrBird
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L, 0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27BB2EE687B0B0FDL, 0x94D049BB133111EBL};
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth 哈希函数个数，最多8个
+     * @param width 每行的计数器个数，向上取整为2的幂
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = Math.min(depth, SEEDS.length);
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = size - 1;
+        this.counters = new AtomicLongArray(this.depth * size);
+    }
+
+    public void add(Object value) {
+        int hash = value.hashCode();
+        for (int i = 0; i < depth; i++) {
+            counters.incrementAndGet(index(i, hash));
+        }
+    }
+
+    public long estimate(Object value) {
+        int hash = value.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.get(index(i, hash)));
+        }
+        return min;
+    }
+
+    private int index(int row, int hash) {
+        long h = (hash + SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+        h ^= h >>> 31;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
@@ -0,0 +1,35 @@
+package cc.mrbird.sentinel.hotparam;
+
+import com.alibaba.csp.sentinel.annotation.SentinelResource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在进入 @SentinelResource 的slot chain之前按热点参数规则限流，
+ * 被限流的调用不会再经过Sentinel统计
+ *
+ * @author MrBird
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HotParamAspect {
+
+    private final HotParamLimiter hotParamLimiter;
+
+    public HotParamAspect(HotParamLimiter hotParamLimiter) {
+        this.hotParamLimiter = hotParamLimiter;
+    }
+
+    @Around("@annotation(sentinelResource)")
+    public Object limit(ProceedingJoinPoint joinPoint, SentinelResource sentinelResource) throws Throwable {
+        if (!hotParamLimiter.tryPass(sentinelResource.value(), joinPoint.getArgs())) {
+            throw new HotParamBlockedException(sentinelResource.value());
+        }
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,17 @@
+package cc.mrbird.sentinel.hotparam;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * @author MrBird
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class HotParamBlockedException extends RuntimeException {
+
+    private static final long serialVersionUID = 2904625183735418462L;
+
+    public HotParamBlockedException(String resource) {
+        super("热点参数限流：" + resource);
+    }
+}
@@ -0,0 +1,130 @@
+package cc.mrbird.sentinel.hotparam;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按参数值限流。每条规则用两个1秒窗口的 Count-Min Sketch 计数，
+ * 估计值 = 当前窗口计数 + 上一窗口计数 * 上一窗口在最近1秒内的占比（滑动窗口近似），
+ * 无论有多少不同的参数值，每条规则占用的内存都是固定的
+ *
+ * @author MrBird
+ */
+@Component
+public class HotParamLimiter {
+
+    private Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private static final long WINDOW_MILLIS = 1000;
+
+    private final int depth;
+    private final int width;
+    private volatile Map<String, List<RuleState>> rules = Collections.emptyMap();
+
+    public HotParamLimiter(@Value("${sentinel.hot-param.sketch-depth:4}") int depth,
+                           @Value("${sentinel.hot-param.sketch-width:1024}") int width) {
+        this.depth = depth;
+        this.width = width;
+    }
+
+    public void loadRules(List<HotParamRule> hotParamRules) {
+        Map<String, List<RuleState>> latest = new HashMap<>();
+        if (hotParamRules != null) {
+            hotParamRules.forEach(rule -> latest.computeIfAbsent(rule.getResource(), key -> new ArrayList<>())
+                    .add(new RuleState(rule)));
+        }
+        rules = latest;
+        log.info("加载热点参数规则：{}", hotParamRules);
+    }
+
+    /**
+     * 返回是否放行，被限流的调用不计数
+     */
+    public boolean tryPass(String resource, Object[] args) {
+        List<RuleState> states = rules.get(resource);
+        if (states == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (RuleState state : states) {
+            int index = state.rule.getParamIndex();
+            if (args == null || index >= args.length || args[index] == null) {
+                continue;
+            }
+            if (!state.tryPass(args[index], now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class RuleState {
+        private final HotParamRule rule;
+        // 当前窗口和上一窗口放在同一个不可变对象中一起替换，并发切换窗口时两者始终对应
+        private final AtomicReference<Windows> windows;
+
+        RuleState(HotParamRule rule) {
+            this.rule = rule;
+            this.windows = new AtomicReference<>(
+                    new Windows(new Window(System.currentTimeMillis() / WINDOW_MILLIS * WINDOW_MILLIS), null));
+        }
+
+        boolean tryPass(Object value, long now) {
+            Windows pair = windows(now);
+            Window window = pair.current;
+            Window last = pair.previous;
+            double estimate = window.sketch.estimate(value);
+            if (last != null && last.start == window.start - WINDOW_MILLIS) {
+                double overlap = 1 - (double) (now - window.start) / WINDOW_MILLIS;
+                estimate += last.sketch.estimate(value) * overlap;
+            }
+            // 先估计再计数，并发时可能略微超过阈值
+            if (estimate + 1 > rule.getQps()) {
+                return false;
+            }
+            window.sketch.add(value);
+            return true;
+        }
+
+        private Windows windows(long now) {
+            long start = now / WINDOW_MILLIS * WINDOW_MILLIS;
+            Windows pair = windows.get();
+            while (pair.current.start < start) {
+                Windows rolled = new Windows(new Window(start), pair.current);
+                if (windows.compareAndSet(pair, rolled)) {
+                    return rolled;
+                }
+                pair = windows.get();
+            }
+            return pair;
+        }
+    }
+
+    private static class Windows {
+        private final Window current;
+        private final Window previous;
+
+        Windows(Window current, Window previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+
+    private class Window {
+        private final long start;
+        private final CountMinSketch sketch = new CountMinSketch(depth, width);
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
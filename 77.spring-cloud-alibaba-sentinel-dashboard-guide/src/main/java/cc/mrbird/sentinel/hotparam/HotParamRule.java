@@ -0,0 +1,42 @@
+package cc.mrbird.sentinel.hotparam;
+
+/**
+ * 热点参数规则：资源 resource 的第 paramIndex 个参数，每个参数值每秒最多通过 qps 次
+ *
+ * @author MrBird
+ */
+public class HotParamRule {
+
+    private String resource;
+    private int paramIndex;
+    private double qps;
+
+    public String getResource() {
+        return resource;
+    }
+
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    public int getParamIndex() {
+        return paramIndex;
+    }
+
+    public void setParamIndex(int paramIndex) {
+        this.paramIndex = paramIndex;
+    }
+
+    public double getQps() {
+        return qps;
+    }
+
+    public void setQps(double qps) {
+        this.qps = qps;
+    }
+
+    @Override
+    public String toString() {
+        return "HotParamRule{resource='" + resource + "', paramIndex=" + paramIndex + ", qps=" + qps + "}";
+    }
+}